@@ -41,6 +41,13 @@ public abstract class AbstractSequence<E extends Comparable<? super E>>
 		if (!(o instanceof Sequence)) {
 			return false;
 		}
+		if (this instanceof IndexedSequence
+			&& o instanceof IndexedSequence) {
+			long size = ((IndexedSequence<?>) this).size();
+			if (size != ((IndexedSequence<?>) o).size()) {
+				return false;
+			}
+		}
 		Iterator<E> i = iterator();
 		Iterator<E> j = ((Sequence<E>) o).iterator();
 		while (i.hasNext() && j.hasNext()) {
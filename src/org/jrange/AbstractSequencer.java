@@ -0,0 +1,130 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+/**
+ * This skeletal implementation of the {@code Sequencer} interface adds the
+ * {@code advance(Object, long)} and {@code distance(Object, Object)} methods,
+ * which let sequences move by any number of steps at once. Their default
+ * implementations merely call {@code next(Object)} repeatedly; sequencers
+ * that can compute them in closed form should override them, as the built-in
+ * sequencers do. Sequences use these methods to compute their size or any of
+ * their elements, so that, for such sequencers, this takes constant time per
+ * segment instead of being proportional to the number of elements.
+ *
+ * @param <E> the type of the sequenced elements.
+ *
+ * @author Osman KOCAK
+ */
+public abstract class AbstractSequencer<E extends Comparable<? super E>>
+	implements Sequencer<E>
+{
+	/**
+	 * Returns the given sequencer as an {@code AbstractSequencer}, wrapping
+	 * it into one if needed.
+	 *
+	 * @param <E> the type of the sequenced elements.
+	 * @param sequencer the sequencer.
+	 *
+	 * @return the given sequencer as an {@code AbstractSequencer}.
+	 */
+	static <E extends Comparable<? super E>> AbstractSequencer<E>
+		wrap(Sequencer<E> sequencer)
+	{
+		if (sequencer instanceof AbstractSequencer) {
+			return (AbstractSequencer<E>) sequencer;
+		}
+		return new ForwardingSequencer<E>(sequencer);
+	}
+
+	/**
+	 * Returns the value that comes {@code n} steps after the given one,
+	 * that is the result of {@code n} successive calls to
+	 * {@link #next(Comparable) next}, starting from {@code current}.
+	 *
+	 * @param current the value to start from.
+	 * @param n the number of steps to advance by.
+	 *
+	 * @return the value that comes {@code n} steps after {@code current}.
+	 *
+	 * @throws NullPointerException if {@code current} is {@code null}.
+	 * @throws IllegalArgumentException if {@code n < 0}.
+	 */
+	public E advance(E current, long n)
+	{
+		Parameters.checkNotNull(current);
+		Parameters.checkCondition(n >= 0, "n must be >= 0");
+		E value = current;
+		for (long i = 0; i < n; i++) {
+			value = next(value);
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the number of steps between the given value and the greatest
+	 * value, among {@code from} and the ones that come after it, that is
+	 * not greater than {@code to}. In other words, returns the greatest
+	 * {@code n} such that {@code advance(from, n)} is not greater than
+	 * {@code to}, capped to {@code Long.MAX_VALUE}.
+	 *
+	 * @param from the value to start from.
+	 * @param to the value not to go beyond.
+	 *
+	 * @return the number of steps from {@code from} towards {@code to}.
+	 *
+	 * @throws NullPointerException if one of the values is {@code null}.
+	 * @throws IllegalArgumentException if {@code from} is greater than
+	 *	{@code to}.
+	 */
+	public long distance(E from, E to)
+	{
+		Parameters.checkCondition(from.compareTo(to) <= 0,
+			"from must be <= to");
+		long n = 0;
+		E value = from;
+		while (n < Long.MAX_VALUE) {
+			E next = next(value);
+			if (next.compareTo(to) > 0) {
+				break;
+			}
+			if (next.compareTo(value) <= 0) {
+				break; /* overflow */
+			}
+			value = next;
+			n++;
+		}
+		return n;
+	}
+
+	private static final class ForwardingSequencer<E extends
+		Comparable<? super E>> extends AbstractSequencer<E>
+	{
+		private final Sequencer<E> sequencer;
+
+		ForwardingSequencer(Sequencer<E> sequencer)
+		{
+			this.sequencer = sequencer;
+		}
+
+		@Override
+		public E next(E current)
+		{
+			return sequencer.next(current);
+		}
+	}
+}
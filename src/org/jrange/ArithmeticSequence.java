@@ -0,0 +1,241 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.util.Arrays;
+
+/**
+ * Skeletal implementation shared by the sequences whose segments are finite
+ * arithmetic progressions, and whose number of elements per segment can thus
+ * be computed in closed form. The index of the first element of each segment
+ * is precomputed, so that any element can be located by a binary search over
+ * the segments.
+ *
+ * @param <E> the type of the elements in this sequence.
+ *
+ * @author Osman KOCAK
+ */
+abstract class ArithmeticSequence<E extends Comparable<? super E>>
+	extends AbstractSequence<E> implements IndexedSequence<E>
+{
+	/**
+	 * The index of the first element of each segment, followed by the size
+	 * of the sequence. Saturates at {@code Long.MAX_VALUE}.
+	 */
+	final long[] offsets;
+
+	/**
+	 * Creates a new {@code ArithmeticSequence}.
+	 *
+	 * @param counts the number of elements of each segment, all positive.
+	 */
+	ArithmeticSequence(long[] counts)
+	{
+		offsets = offsets(counts);
+	}
+
+	/**
+	 * Returns the index of the first element of each segment, followed by
+	 * the total number of elements, given the number of elements of each
+	 * segment. The returned indexes saturate at {@code Long.MAX_VALUE}.
+	 *
+	 * @param counts the number of elements of each segment, all positive.
+	 *
+	 * @return the offsets of the segments.
+	 */
+	static long[] offsets(long[] counts)
+	{
+		long[] offsets = new long[counts.length + 1];
+		for (int k = 0; k < counts.length; k++) {
+			long offset = offsets[k] + counts[k];
+			offsets[k + 1] = offset < 0 ? Long.MAX_VALUE : offset;
+		}
+		return offsets;
+	}
+
+	/**
+	 * Returns the segment holding the element at the given index, given
+	 * the offsets of the segments.
+	 *
+	 * @param offsets the offsets of the segments.
+	 * @param index the index of an element.
+	 *
+	 * @return the segment holding the element at {@code index}.
+	 *
+	 * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+	 */
+	static int segmentOf(long[] offsets, long index)
+	{
+		long size = offsets[offsets.length - 1];
+		if (index < 0 || index >= size) {
+			String message = "Index: " + index + ", Size: " + size;
+			throw new IndexOutOfBoundsException(message);
+		}
+		int k = Arrays.binarySearch(offsets, index);
+		return k >= 0 ? k : -k - 2;
+	}
+
+	/**
+	 * Folds the given arithmetic progression of {@code int}s into the given
+	 * hash, as {@code AbstractSequence.hashCode()} folds the hash codes of
+	 * the elements of a sequence ({@code hash = 97 * hash + element}), in
+	 * {@code O(log(count))} steps instead of {@code O(count)}.
+	 *
+	 * @param hash the hash of the preceding elements.
+	 * @param first the first element of the progression.
+	 * @param step the difference between two successive elements.
+	 * @param count the number of elements of the progression.
+	 *
+	 * @return the hash of the preceding elements and the progression.
+	 */
+	static int hash(int hash, int first, int step, long count)
+	{
+		/*
+		 * Folding n elements maps hash to p * hash + q * first + r *
+		 * step. The coefficients for 2n and n + 1 elements are derived
+		 * from the ones for n elements, following the bits of count.
+		 */
+		int p = 1;
+		int q = 0;
+		int r = 0;
+		int n = 0;
+		int bits = 64 - Long.numberOfLeadingZeros(count);
+		for (int i = bits - 1; i >= 0; i--) {
+			r = p * r + q * n + r;
+			q = p * q + q;
+			p = p * p;
+			n = 2 * n;
+			if ((count >>> i & 1) != 0) {
+				r = 97 * r + n;
+				q = 97 * q + 1;
+				p = 97 * p;
+				n = n + 1;
+			}
+		}
+		return p * hash + q * first + r * step;
+	}
+
+	@Override
+	public final long size()
+	{
+		return offsets[offsets.length - 1];
+	}
+
+	/**
+	 * Returns the index at which a sequence should be split, given the
+	 * offsets of its segments, or {@code 0} if it has less than two
+	 * elements. The boundary between two segments that is the closest to
+	 * the middle of the sequence is chosen if it is no further from it
+	 * than a quarter of the sequence's size, and the middle otherwise.
+	 *
+	 * @param offsets the offsets of the segments.
+	 *
+	 * @return the index of the first element of the second part.
+	 */
+	static long splitPoint(long[] offsets)
+	{
+		int last = offsets.length - 1;
+		long size = offsets[last];
+		if (size < 2) {
+			return 0;
+		}
+		long half = size >>> 1;
+		long point = half;
+		long gap = (size >>> 2) + 1;
+		for (int k = 1; k < last; k++) {
+			long d = Math.abs(offsets[k] - half);
+			if (d < gap) {
+				point = offsets[k];
+				gap = d;
+			}
+		}
+		return point;
+	}
+
+	/**
+	 * Returns the index at which this sequence should be split, or
+	 * {@code 0} if it has less than two elements.
+	 *
+	 * @return the index of the first element of the second part.
+	 */
+	final long splitPoint()
+	{
+		return splitPoint(offsets);
+	}
+
+	/**
+	 * Checks the number of elements to keep.
+	 *
+	 * @param n the number of elements to keep.
+	 *
+	 * @return whether less than {@code n} elements are to be kept.
+	 *
+	 * @throws IllegalArgumentException if {@code n < 0}.
+	 */
+	final boolean checkLimit(long n)
+	{
+		Parameters.checkCondition(n >= 0, "n must be >= 0");
+		return n < size();
+	}
+
+	/**
+	 * Returns the size of this sequence, as the length of an array.
+	 *
+	 * @return the size of this sequence.
+	 *
+	 * @throws IllegalStateException if this sequence has more than
+	 *	{@code Integer.MAX_VALUE} elements.
+	 */
+	final int arraySize()
+	{
+		long size = size();
+		if (size > Integer.MAX_VALUE) {
+			String message = "Too many elements: " + size;
+			throw new IllegalStateException(message);
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Returns the segment holding the element at the given index.
+	 *
+	 * @param index the index of an element.
+	 *
+	 * @return the segment holding the element at {@code index}.
+	 *
+	 * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+	 */
+	final int segmentOf(long index)
+	{
+		return segmentOf(offsets, index);
+	}
+
+	/**
+	 * Checks the number of elements to skip.
+	 *
+	 * @param n the number of elements to skip.
+	 *
+	 * @return whether there are elements left after skipping {@code n}.
+	 *
+	 * @throws IllegalArgumentException if {@code n < 0}.
+	 */
+	final boolean checkSkip(long n)
+	{
+		Parameters.checkCondition(n >= 0, "n must be >= 0");
+		return n < size();
+	}
+}
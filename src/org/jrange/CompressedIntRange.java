@@ -0,0 +1,873 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+
+package org.jrange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jrange.PrimitiveRange.Operation;
+
+/**
+ * An immutable set of {@code int}s, compressed for dense sets with many small
+ * gaps. The values are partitioned into chunks of 2^16 values sharing their
+ * upper 16 bits, and each non-empty chunk stores its lower 16 bits in the most
+ * compact of three containers: a sorted array (sparse chunks), a bitmap (dense
+ * chunks) or a list of runs (chunks made of a few long runs). The container of
+ * a chunk only depends on its content. Set operations are computed chunk by
+ * chunk, with word-level bit operations on bitmaps (or a merge of two sorted
+ * arrays), chunks held by a single operand being shared with the result.
+ *
+ * Unlike {@code Range}s, a {@code CompressedIntRange} is a discrete set: it
+ * holds the integers contained in the ranges it is built from, and two ranges
+ * holding the same integers are equal. For instance, {@code [1, 3] U [4, 5]}
+ * and {@code ]0, 5]} give the same {@code CompressedIntRange}.
+ *
+ * @author Osman KOCAK
+ */
+public final class CompressedIntRange
+{
+	private static final CompressedIntRange EMPTY = new CompressedIntRange(
+		new int[0], new Container[0], 0);
+
+	/**
+	 * Returns the empty {@code CompressedIntRange}.
+	 *
+	 * @return the empty {@code CompressedIntRange}.
+	 */
+	public static CompressedIntRange empty()
+	{
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the {@code CompressedIntRange} holding the integers from
+	 * {@code lower} to {@code upper}, both included. The returned range is
+	 * empty if {@code upper < lower}.
+	 *
+	 * @param lower the lowest integer of the range.
+	 * @param upper the highest integer of the range.
+	 *
+	 * @return the integers from {@code lower} to {@code upper}.
+	 */
+	public static CompressedIntRange closed(int lower, int upper)
+	{
+		Builder builder = new Builder();
+		if (lower <= upper) {
+			builder.add(lower, upper);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the {@code CompressedIntRange} holding the given integers.
+	 *
+	 * @param values the integers of the range.
+	 *
+	 * @return the integers in {@code values}.
+	 *
+	 * @throws NullPointerException if {@code values} is {@code null}.
+	 */
+	public static CompressedIntRange of(int... values)
+	{
+		int[] sorted = values.clone();
+		Arrays.sort(sorted);
+		Builder builder = new Builder();
+		for (int value : sorted) {
+			builder.add(value, value);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the {@code CompressedIntRange} holding the integers contained
+	 * in the given {@code Range}.
+	 *
+	 * @param range the range to convert.
+	 *
+	 * @return the integers of the given range.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public static CompressedIntRange valueOf(Range<Integer> range)
+	{
+		Builder builder = new Builder();
+		for (Segment<Integer> s : Segments.split(range)) {
+			long lower = s.lowerValue();
+			long upper = s.upperValue();
+			if (!s.isLowerClosed()) {
+				lower++;
+			}
+			if (!s.isUpperClosed()) {
+				upper--;
+			}
+			if (lower <= upper) {
+				builder.add((int) lower, (int) upper);
+			}
+		}
+		return builder.build();
+	}
+
+	/* The upper 16 bits of the chunks, in increasing order. */
+	private final int[] keys;
+	private final Container[] containers;
+	private final int size;
+
+	private CompressedIntRange(int[] keys, Container[] containers, int size)
+	{
+		this.keys = keys;
+		this.containers = containers;
+		this.size = size;
+	}
+
+	/**
+	 * Returns whether this range is empty.
+	 *
+	 * @return whether this range is empty.
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of integers in this range.
+	 *
+	 * @return the number of integers in this range.
+	 */
+	public long cardinality()
+	{
+		long cardinality = 0;
+		for (int i = 0; i < size; i++) {
+			cardinality += containers[i].cardinality();
+		}
+		return cardinality;
+	}
+
+	/**
+	 * Returns whether this range contains the given value.
+	 *
+	 * @param value the value to test.
+	 *
+	 * @return whether this range contains the given value.
+	 */
+	public boolean contains(int value)
+	{
+		int i = Arrays.binarySearch(keys, 0, size, value >> 16);
+		return i >= 0 && containers[i].contains(value & 0xFFFF);
+	}
+
+	/**
+	 * Returns whether this range includes the given one.
+	 *
+	 * @param range the range to test.
+	 *
+	 * @return whether this range includes the given range.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public boolean includes(CompressedIntRange range)
+	{
+		for (int j = 0; j < range.size; j++) {
+			int key = range.keys[j];
+			int i = Arrays.binarySearch(keys, 0, size, key);
+			if (i < 0 || Container.combine(range.containers[j],
+				containers[i], Operation.SUBTRACTION) != null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether this range intersects the given one.
+	 *
+	 * @param range the range to test.
+	 *
+	 * @return whether this range intersects the given one.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public boolean intersects(CompressedIntRange range)
+	{
+		int i = 0;
+		int j = 0;
+		while (i < size && j < range.size) {
+			if (keys[i] < range.keys[j]) {
+				i++;
+			} else if (keys[i] > range.keys[j]) {
+				j++;
+			} else if (Container.combine(containers[i++],
+				range.containers[j++], Operation.INTERSECTION)
+				!= null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the intersection of this range and the given one.
+	 *
+	 * @param range the range to intersect with this one.
+	 *
+	 * @return the intersection of this range and the given one.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public CompressedIntRange intersection(CompressedIntRange range)
+	{
+		return combine(range, Operation.INTERSECTION);
+	}
+
+	/**
+	 * Returns the union of this range and the given one.
+	 *
+	 * @param range the range to unite with this one.
+	 *
+	 * @return the union of this range and the given one.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public CompressedIntRange union(CompressedIntRange range)
+	{
+		return combine(range, Operation.UNION);
+	}
+
+	/**
+	 * Subtracts the given range from this one.
+	 *
+	 * @param range the range to subtract.
+	 *
+	 * @return the subtraction of the given range from this one.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public CompressedIntRange subtraction(CompressedIntRange range)
+	{
+		return combine(range, Operation.SUBTRACTION);
+	}
+
+	/**
+	 * Returns the {@code Range} holding the maximal runs of consecutive
+	 * integers of this range, as closed intervals.
+	 *
+	 * @return the {@code Range} equal to this range.
+	 */
+	public Range<Integer> toRange()
+	{
+		List<Segment<Integer>> segments;
+		segments = new ArrayList<Segment<Integer>>();
+		long lower = 0;
+		long upper = Long.MIN_VALUE;
+		for (int i = 0; i < size; i++) {
+			int base = keys[i] << 16;
+			int[] runs = containers[i].runs();
+			for (int k = 0; k < runs.length; k += 2) {
+				int start = base | runs[k];
+				int end = base | runs[k + 1];
+				if (start != upper + 1) {
+					if (upper != Long.MIN_VALUE) {
+						segments.add(
+							segment(lower, upper));
+					}
+					lower = start;
+				}
+				upper = end;
+			}
+		}
+		if (upper != Long.MIN_VALUE) {
+			segments.add(segment(lower, upper));
+		}
+		return new SimpleRange<Integer>(
+			segments.toArray(new Segment[segments.size()]));
+	}
+
+	@Override
+	public String toString()
+	{
+		return toRange().toString();
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof CompressedIntRange)) {
+			return false;
+		}
+		final CompressedIntRange range = (CompressedIntRange) o;
+		if (size != range.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (keys[i] != range.keys[i]
+				|| !containers[i].equals(range.containers[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int hash = 7;
+		for (int i = 0; i < size; i++) {
+			hash = 71 * hash + keys[i];
+			hash = 71 * hash + containers[i].hashCode();
+		}
+		return hash;
+	}
+
+	private static Segment<Integer> segment(long lower, long upper)
+	{
+		return new Segment<Integer>(
+			(int) lower, true, (int) upper, true);
+	}
+
+	/*
+	 * Combines the chunks having the same key, and keeps, or drops, the
+	 * chunks held by a single operand depending on the operation.
+	 */
+	private CompressedIntRange combine(CompressedIntRange range,
+		Operation operation)
+	{
+		int[] k = new int[size + range.size];
+		Container[] c = new Container[size + range.size];
+		int n = 0;
+		int i = 0;
+		int j = 0;
+		while (i < size || j < range.size) {
+			int cmp;
+			if (i == size) {
+				cmp = 1;
+			} else if (j == range.size) {
+				cmp = -1;
+			} else {
+				cmp = keys[i] < range.keys[j] ? -1
+					: keys[i] > range.keys[j] ? 1 : 0;
+			}
+			Container container;
+			int key;
+			if (cmp < 0) {
+				key = keys[i];
+				container = operation.apply(true, false)
+					? containers[i] : null;
+				i++;
+			} else if (cmp > 0) {
+				key = range.keys[j];
+				container = operation.apply(false, true)
+					? range.containers[j] : null;
+				j++;
+			} else {
+				key = keys[i];
+				container = Container.combine(containers[i++],
+					range.containers[j++], operation);
+			}
+			if (container != null) {
+				k[n] = key;
+				c[n++] = container;
+			}
+		}
+		return n == 0 ? EMPTY : new CompressedIntRange(k, c, n);
+	}
+
+	/* Accumulates sorted runs of integers, merging the adjacent ones. */
+	private static final class Builder
+	{
+		private final List<Integer> keys;
+		private final List<Container> containers;
+		private int key;
+		private int[] runs;
+		private int n;
+
+		Builder()
+		{
+			keys = new ArrayList<Integer>();
+			containers = new ArrayList<Container>();
+			runs = new int[16];
+		}
+
+		void add(int lower, int upper)
+		{
+			int start = lower;
+			while (true) {
+				int end = start | 0xFFFF;
+				if (end >= upper) {
+					add(start >> 16, start & 0xFFFF,
+						upper & 0xFFFF);
+					return;
+				}
+				add(start >> 16, start & 0xFFFF, 0xFFFF);
+				start = end + 1;
+			}
+		}
+
+		private void add(int k, int start, int end)
+		{
+			if (n > 0 && k != key) {
+				flush();
+			}
+			key = k;
+			if (n > 0 && runs[n - 1] + 1 >= start) {
+				runs[n - 1] = Math.max(runs[n - 1], end);
+				return;
+			}
+			if (n == runs.length) {
+				runs = Arrays.copyOf(runs, 2 * n);
+			}
+			runs[n++] = start;
+			runs[n++] = end;
+		}
+
+		private void flush()
+		{
+			keys.add(key);
+			containers.add(Container.ofRuns(runs, n));
+			n = 0;
+		}
+
+		CompressedIntRange build()
+		{
+			if (n > 0) {
+				flush();
+			}
+			int size = keys.size();
+			if (size == 0) {
+				return EMPTY;
+			}
+			int[] k = new int[size];
+			for (int i = 0; i < size; i++) {
+				k[i] = keys.get(i);
+			}
+			return new CompressedIntRange(k,
+				containers.toArray(new Container[size]), size);
+		}
+	}
+
+	/*
+	 * The lower 16 bits of the values of a chunk. Containers are created
+	 * through the static factories below, which pick the most compact
+	 * container for a given content: a sorted array takes 2 bytes per
+	 * value (up to 4096 values), a run list 4 bytes per run and a bitmap
+	 * 8 kB.
+	 */
+	private abstract static class Container
+	{
+		static final int WORDS = 1024;
+		static final int MAX_ARRAY = 4096;
+
+		static Container ofValues(int[] values, int n)
+		{
+			if (n == 0) {
+				return null;
+			}
+			int runs = 1;
+			for (int i = 1; i < n; i++) {
+				if (values[i] != values[i - 1] + 1) {
+					runs++;
+				}
+			}
+			if (isArray(n, runs)) {
+				return new ArrayContainer(values, n);
+			}
+			long[] words = new long[WORDS];
+			for (int i = 0; i < n; i++) {
+				words[values[i] >>> 6] |= 1L << values[i];
+			}
+			return ofWords(words);
+		}
+
+		static Container ofRuns(int[] runs, int n)
+		{
+			int cardinality = 0;
+			for (int i = 0; i < n; i += 2) {
+				cardinality += runs[i + 1] - runs[i] + 1;
+			}
+			if (isRuns(cardinality, n / 2)) {
+				return new RunContainer(runs, n, cardinality);
+			}
+			long[] words = new long[WORDS];
+			for (int i = 0; i < n; i += 2) {
+				setRange(words, runs[i], runs[i + 1]);
+			}
+			return ofWords(words);
+		}
+
+		/* Takes ownership of the given words. */
+		static Container ofWords(long[] words)
+		{
+			int cardinality = 0;
+			int runs = 0;
+			long carry = 0;
+			for (long word : words) {
+				cardinality += Long.bitCount(word);
+				long starts = word & ~(word << 1 | carry);
+				runs += Long.bitCount(starts);
+				carry = word >>> 63;
+			}
+			if (cardinality == 0) {
+				return null;
+			}
+			if (isRuns(cardinality, runs)) {
+				int[] r = runs(words);
+				return new RunContainer(
+					r, r.length, cardinality);
+			}
+			if (isArray(cardinality, runs)) {
+				int[] values = values(words, cardinality);
+				return new ArrayContainer(values, cardinality);
+			}
+			return new BitmapContainer(words, cardinality);
+		}
+
+		static Container combine(Container a, Container b,
+			Operation operation)
+		{
+			if (a instanceof ArrayContainer
+				&& b instanceof ArrayContainer) {
+				return merge(((ArrayContainer) a).values,
+					((ArrayContainer) b).values, operation);
+			}
+			long[] x = a.words();
+			long[] y = b.words();
+			long[] words = new long[WORDS];
+			switch (operation) {
+				case UNION:
+					for (int i = 0; i < WORDS; i++) {
+						words[i] = x[i] | y[i];
+					}
+					break;
+				case INTERSECTION:
+					for (int i = 0; i < WORDS; i++) {
+						words[i] = x[i] & y[i];
+					}
+					break;
+				default:
+					for (int i = 0; i < WORDS; i++) {
+						words[i] = x[i] & ~y[i];
+					}
+			}
+			return ofWords(words);
+		}
+
+		private static Container merge(char[] a, char[] b,
+			Operation operation)
+		{
+			int[] values = new int[a.length + b.length];
+			int n = 0;
+			int i = 0;
+			int j = 0;
+			while (i < a.length || j < b.length) {
+				int cmp;
+				if (i == a.length) {
+					cmp = 1;
+				} else if (j == b.length) {
+					cmp = -1;
+				} else {
+					cmp = a[i] - b[j];
+				}
+				int value = cmp <= 0 ? a[i++] : b[j];
+				if (cmp >= 0) {
+					j++;
+				}
+				if (operation.apply(cmp <= 0, cmp >= 0)) {
+					values[n++] = value;
+				}
+			}
+			return ofValues(values, n);
+		}
+
+		private static boolean isRuns(int cardinality, int runs)
+		{
+			int size = 4 * runs;
+			return size < 8192 && (cardinality > MAX_ARRAY
+				|| size < 2 * cardinality);
+		}
+
+		private static boolean isArray(int cardinality, int runs)
+		{
+			return cardinality <= MAX_ARRAY
+				&& !isRuns(cardinality, runs);
+		}
+
+		/* Sets the bits from start to end, both included. */
+		static void setRange(long[] words, int start, int end)
+		{
+			int first = start >>> 6;
+			int last = end >>> 6;
+			long head = -1L << start;
+			long tail = -1L >>> (63 - (end & 63));
+			if (first == last) {
+				words[first] |= head & tail;
+				return;
+			}
+			words[first] |= head;
+			for (int i = first + 1; i < last; i++) {
+				words[i] = -1L;
+			}
+			words[last] |= tail;
+		}
+
+		/* The set bits, in increasing order. */
+		private static int[] values(long[] words, int cardinality)
+		{
+			int[] values = new int[cardinality];
+			int n = 0;
+			for (int i = 0; i < WORDS; i++) {
+				for (long w = words[i]; w != 0; w &= w - 1) {
+					values[n++] = i * 64
+						+ Long.numberOfTrailingZeros(w);
+				}
+			}
+			return values;
+		}
+
+		/* The maximal runs of set bits, as (start, end) pairs. */
+		private static int[] runs(long[] words)
+		{
+			int[] runs = new int[16];
+			int n = 0;
+			int i = 0;
+			long word = words[0];
+			while (true) {
+				while (word == 0) {
+					if (++i == WORDS) {
+						return Arrays.copyOf(runs, n);
+					}
+					word = words[i];
+				}
+				if (n == runs.length) {
+					runs = Arrays.copyOf(runs, 2 * n);
+				}
+				runs[n++] = i * 64
+					+ Long.numberOfTrailingZeros(word);
+				word |= word - 1;
+				while (word == -1L) {
+					if (++i == WORDS) {
+						runs[n++] = 0xFFFF;
+						return Arrays.copyOf(runs, n);
+					}
+					word = words[i];
+				}
+				runs[n++] = i * 64
+					+ Long.numberOfTrailingZeros(~word) - 1;
+				word &= word + 1;
+			}
+		}
+
+		abstract int cardinality();
+
+		abstract boolean contains(int value);
+
+		/* The content as a bitmap, which must not be modified. */
+		abstract long[] words();
+
+		/* The maximal runs of values, as (start, end) pairs. */
+		abstract int[] runs();
+	}
+
+	private static final class ArrayContainer extends Container
+	{
+		final char[] values;
+
+		ArrayContainer(int[] values, int n)
+		{
+			this.values = new char[n];
+			for (int i = 0; i < n; i++) {
+				this.values[i] = (char) values[i];
+			}
+		}
+
+		@Override
+		int cardinality()
+		{
+			return values.length;
+		}
+
+		@Override
+		boolean contains(int value)
+		{
+			return Arrays.binarySearch(values, (char) value) >= 0;
+		}
+
+		@Override
+		long[] words()
+		{
+			long[] words = new long[WORDS];
+			for (char value : values) {
+				words[value >>> 6] |= 1L << value;
+			}
+			return words;
+		}
+
+		@Override
+		int[] runs()
+		{
+			int[] runs = new int[2 * values.length];
+			int n = 0;
+			for (int i = 0; i < values.length; i++) {
+				if (i == 0 || values[i] != values[i - 1] + 1) {
+					runs[n++] = values[i];
+					runs[n++] = values[i];
+				} else {
+					runs[n - 1] = values[i];
+				}
+			}
+			return Arrays.copyOf(runs, n);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			return o instanceof ArrayContainer && Arrays.equals(
+				values, ((ArrayContainer) o).values);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Arrays.hashCode(values);
+		}
+	}
+
+	private static final class BitmapContainer extends Container
+	{
+		final long[] words;
+		final int cardinality;
+
+		BitmapContainer(long[] words, int cardinality)
+		{
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		int cardinality()
+		{
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(int value)
+		{
+			return (words[value >>> 6] & (1L << value)) != 0;
+		}
+
+		@Override
+		long[] words()
+		{
+			return words;
+		}
+
+		@Override
+		int[] runs()
+		{
+			return Container.runs(words);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			return o instanceof BitmapContainer && Arrays.equals(
+				words, ((BitmapContainer) o).words);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Arrays.hashCode(words);
+		}
+	}
+
+	private static final class RunContainer extends Container
+	{
+		/* Start and end (included) of the k-th run at 2k and 2k + 1. */
+		final char[] bounds;
+		final int cardinality;
+
+		RunContainer(int[] runs, int n, int cardinality)
+		{
+			this.bounds = new char[n];
+			for (int i = 0; i < n; i++) {
+				this.bounds[i] = (char) runs[i];
+			}
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		int cardinality()
+		{
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(int value)
+		{
+			int low = 0;
+			int high = bounds.length / 2 - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				if (bounds[2 * mid] > value) {
+					high = mid - 1;
+				} else if (bounds[2 * mid + 1] < value) {
+					low = mid + 1;
+				} else {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		long[] words()
+		{
+			long[] words = new long[WORDS];
+			for (int i = 0; i < bounds.length; i += 2) {
+				setRange(words, bounds[i], bounds[i + 1]);
+			}
+			return words;
+		}
+
+		@Override
+		int[] runs()
+		{
+			int[] runs = new int[bounds.length];
+			for (int i = 0; i < runs.length; i++) {
+				runs[i] = bounds[i];
+			}
+			return runs;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			return o instanceof RunContainer && Arrays.equals(
+				bounds, ((RunContainer) o).bounds);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Arrays.hashCode(bounds);
+		}
+	}
+}
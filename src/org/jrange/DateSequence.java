@@ -0,0 +1,47 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A {@code Sequence} of {@code Date}s, that can also be iterated over as a
+ * sequence of primitive epoch milliseconds. Iterating over the latter doesn't
+ * create any {@code Date} object.
+ *
+ * @author Osman KOCAK
+ */
+public interface DateSequence extends IndexedSequence<Date>
+{
+	/**
+	 * Returns the sequence of the elements of this sequence, as numbers of
+	 * milliseconds since the epoch (see {@link Date#getTime()}).
+	 *
+	 * @return this sequence, in epoch milliseconds.
+	 */
+	LongSequence millis();
+
+	@Override
+	DateSequence skip(long n);
+
+	@Override
+	DateSequence limit(long n);
+
+	@Override
+	List<DateSequence> split();
+}
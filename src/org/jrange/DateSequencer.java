@@ -24,7 +24,7 @@ import java.util.concurrent.TimeUnit;
  *
  * @author Osman KOCAK
  */
-public final class DateSequencer implements Sequencer<Date>
+public final class DateSequencer extends AbstractSequencer<Date>
 {
 	private final long step;
 
@@ -56,12 +56,38 @@ public final class DateSequencer implements Sequencer<Date>
 		this.step = TimeUnit.MILLISECONDS.convert(step, unit);
 	}
 
+	/**
+	 * Returns the step between two successive dates in milliseconds.
+	 *
+	 * @return the step between two successive dates in milliseconds.
+	 */
+	long step()
+	{
+		return step;
+	}
+
 	@Override
 	public Date next(Date current)
 	{
 		return new Date(current.getTime() + step);
 	}
 
+	@Override
+	public Date advance(Date current, long n)
+	{
+		Parameters.checkCondition(n >= 0, "n must be >= 0");
+		return new Date(current.getTime() + n * step);
+	}
+
+	@Override
+	public long distance(Date from, Date to)
+	{
+		Parameters.checkCondition(from.compareTo(to) <= 0,
+			"from must be <= to");
+		long distance = to.getTime() - from.getTime();
+		return LongSequencer.steps(distance, step);
+	}
+
 	@Override
 	public String toString()
 	{
@@ -0,0 +1,138 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * The arithmetic progression {@code start + i * step}, whose terms are
+ * computed exactly in decimal and rounded to the nearest {@code double}.
+ * When the start and the step can be written {@code a / 10^s} and
+ * {@code b / 10^s} with small enough integers {@code a} and {@code b},
+ * the i-th term is computed as {@code (a + i * b) / 10^s}: both operands
+ * of the division being exact {@code double}s, its correctly rounded
+ * result is the one of the decimal computation, and no allocation is
+ * needed. Otherwise, terms are computed with {@code BigDecimal}.
+ *
+ * @author Osman KOCAK
+ */
+final class DecimalProgression
+{
+	private static final int MAX_SCALE = 22;
+	private static final int MAX_BITS = 53;
+	private static final double[] POWERS_OF_TEN;
+	static {
+		POWERS_OF_TEN = new double[MAX_SCALE + 1];
+		POWERS_OF_TEN[0] = 1.0;
+		for (int i = 1; i <= MAX_SCALE; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+		}
+	}
+
+	private final BigDecimal start;
+	private final BigDecimal step;
+	private final long a;
+	private final long b;
+	private final double divisor;
+	private final long limit;
+
+	/**
+	 * Creates a new {@code DecimalProgression}.
+	 *
+	 * @param start the first term.
+	 * @param step the difference between two successive terms.
+	 */
+	DecimalProgression(BigDecimal start, BigDecimal step)
+	{
+		this.start = start;
+		this.step = step;
+		int s = Math.max(0, Math.max(start.scale(), step.scale()));
+		long limit = -1;
+		long a = 0;
+		long b = 0;
+		if (s <= MAX_SCALE) {
+			BigInteger x = start.setScale(s).unscaledValue();
+			BigInteger y = step.setScale(s).unscaledValue();
+			if (x.bitLength() <= MAX_BITS
+				&& y.bitLength() <= MAX_BITS) {
+				a = x.longValue();
+				b = y.longValue();
+				limit = ((1L << MAX_BITS) - Math.abs(a)) / b;
+			}
+		}
+		this.a = a;
+		this.b = b;
+		this.divisor = POWERS_OF_TEN[Math.min(s, MAX_SCALE)];
+		this.limit = limit;
+	}
+
+	/**
+	 * Returns the i-th term of this progression.
+	 *
+	 * @param i the index of the term, must be positive.
+	 *
+	 * @return the i-th term of this progression.
+	 */
+	double get(long i)
+	{
+		if (i <= limit) {
+			return (a + i * b) / divisor;
+		}
+		BigDecimal n = BigDecimal.valueOf(i);
+		return start.add(step.multiply(n)).doubleValue();
+	}
+
+	/**
+	 * Returns the index of the last term of this progression that
+	 * is less than the given value (or equal to it, if {@code closed}
+	 * is {@code true}), or {@code -1} if there is no such term. The
+	 * result is capped to {@code Long.MAX_VALUE}.
+	 *
+	 * @param value the value to compare the terms to.
+	 * @param closed whether a term may be equal to {@code value}.
+	 *
+	 * @return the index of the last term below {@code value}.
+	 */
+	long indexOfLast(double value, boolean closed)
+	{
+		if (value == Double.POSITIVE_INFINITY) {
+			return Long.MAX_VALUE;
+		}
+		BigDecimal d = BigDecimal.valueOf(value).subtract(start);
+		long i = -1;
+		if (d.signum() >= 0) {
+			BigInteger q = d.divide(step, 0, RoundingMode.FLOOR)
+				.toBigInteger();
+			i = q.bitLength() < 64 ? q.longValue() : Long.MAX_VALUE;
+		}
+		while (i < Long.MAX_VALUE && isBelow(i + 1, value, closed)) {
+			i++;
+		}
+		while (i >= 0 && !isBelow(i, value, closed)) {
+			i--;
+		}
+		return i;
+	}
+
+	private boolean isBelow(long i, double value, boolean closed)
+	{
+		double term = get(i);
+		return term < value || closed && term == value;
+	}
+}
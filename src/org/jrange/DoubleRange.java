@@ -0,0 +1,330 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An immutable range of {@code double}s. {@code DoubleRange}s provide the
+ * same algebra as {@code Range}s, but store their bounds in a {@code double[]}
+ * (and their closedness in a {@code BitSet}) so that no boxing occurs, neither
+ * in memory nor when testing whether a value is contained.
+ * <p>
+ * Unlike {@code Double.compareTo}, values are ordered numerically: {@code -0.0}
+ * and {@code 0.0} are the same value (bounds are always stored as {@code 0.0})
+ * and {@code NaN} is not a valid bound and is contained in no range. Infinite
+ * values are valid bounds.
+ *
+ * @author Osman KOCAK
+ */
+public final class DoubleRange
+	extends PrimitiveRange<DoubleRange, Double>
+{
+	private static final DoubleRange EMPTY = new DoubleRange(new double[0],
+		new BitSet());
+
+	/**
+	 * Returns the empty {@code DoubleRange}.
+	 *
+	 * @return the empty {@code DoubleRange}.
+	 */
+	public static DoubleRange empty()
+	{
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the closed interval {@code [lower, upper]}.
+	 *
+	 * @param lower the interval's lower bound.
+	 * @param upper the interval's upper bound.
+	 *
+	 * @return the closed interval {@code [lower, upper]}.
+	 *
+	 * @throws IllegalArgumentException if one of the bounds is {@code NaN}.
+	 */
+	public static DoubleRange closed(double lower, double upper)
+	{
+		return interval(lower, true, upper, true);
+	}
+
+	/**
+	 * Returns the opened interval {@code ]lower, upper[}.
+	 *
+	 * @param lower the interval's lower bound.
+	 * @param upper the interval's upper bound.
+	 *
+	 * @return the opened interval {@code ]lower, upper[}.
+	 *
+	 * @throws IllegalArgumentException if one of the bounds is {@code NaN}.
+	 */
+	public static DoubleRange opened(double lower, double upper)
+	{
+		return interval(lower, false, upper, false);
+	}
+
+	/**
+	 * Returns the interval defined by the given bounds. Note that if the
+	 * upper bound is lower than the lower bound, or, if the bounds' values
+	 * are equal and at least one of them is opened, the returned interval
+	 * will be empty.
+	 *
+	 * @param lower the interval's lower bound.
+	 * @param lowerClosed whether the lower bound is closed.
+	 * @param upper the interval's upper bound.
+	 * @param upperClosed whether the upper bound is closed.
+	 *
+	 * @return the interval defined by the given bounds.
+	 *
+	 * @throws IllegalArgumentException if one of the bounds is {@code NaN}.
+	 */
+	public static DoubleRange interval(double lower, boolean lowerClosed,
+		double upper, boolean upperClosed)
+	{
+		lower = checkValue(lower);
+		upper = checkValue(upper);
+		if (lower > upper
+			|| lower == upper && !(lowerClosed && upperClosed)) {
+			return EMPTY;
+		}
+		BitSet closed = new BitSet(2);
+		closed.set(0, lowerClosed);
+		closed.set(1, upperClosed);
+		return new DoubleRange(new double[] {lower, upper}, closed);
+	}
+
+	/**
+	 * Returns the {@code DoubleRange} containing the same values as the
+	 * given {@code Range}. Note that, {@code -0.0} and {@code 0.0} being
+	 * the same value, the returned range may have less segments than the
+	 * given one.
+	 *
+	 * @param range the range to convert.
+	 *
+	 * @return the {@code DoubleRange} equal to the given range.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 * @throws IllegalArgumentException if one of the range's bounds is
+	 *	{@code NaN}.
+	 */
+	public static DoubleRange valueOf(Range<Double> range)
+	{
+		return convert(range, EMPTY);
+	}
+
+	private static double checkValue(double value)
+	{
+		Parameters.checkCondition(!Double.isNaN(value), "NaN bound");
+		return value == 0.0 ? 0.0 : value;
+	}
+
+	private final double[] values;
+
+	private DoubleRange(double[] values, BitSet closed)
+	{
+		super(closed, values.length);
+		this.values = values;
+	}
+
+	/**
+	 * Returns whether this range contains the given value.
+	 *
+	 * @param value the value to test.
+	 *
+	 * @return whether this range contains the given value, always
+	 *	{@code false} if it is {@code NaN}.
+	 */
+	public boolean contains(double value)
+	{
+		if (Double.isNaN(value)) {
+			return false;
+		}
+		int low = 0;
+		int high = size / 2 - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int i = 2 * mid;
+			double lower = values[i];
+			double upper = values[i + 1];
+			if (value < lower || value == lower && !closed.get(i)) {
+				high = mid - 1;
+			} else if (value > upper
+				|| value == upper && !closed.get(i + 1)) {
+				low = mid + 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the sequence of the values contained in this range, as
+	 * generated by the given sequencer. The returned sequence can be
+	 * iterated over without boxing its elements.
+	 *
+	 * @param sequencer the sequencer to use.
+	 *
+	 * @return the sequence of the values of this range.
+	 *
+	 * @throws NullPointerException if {@code sequencer} is {@code null}.
+	 * @throws IllegalArgumentException if a segment of this range has an
+	 *	infinite lower value.
+	 */
+	public DoubleSequence sequence(DoubleSequencer sequencer)
+	{
+		Parameters.checkNotNull(sequencer);
+		return LazyDoubleSequence.create(segments(), sequencer);
+	}
+
+	/**
+	 * Returns this range with the segments that are not separated by any
+	 * {@code double} merged together. For instance {@code [0.0, 1.0]} and
+	 * {@code [Math.nextUp(1.0), 2.0]} are separated by exactly one ULP, no
+	 * {@code double} lies between them, so they are merged into
+	 * {@code [0.0, 2.0]}. The returned range contains exactly the same
+	 * {@code double}s as this one, but possibly fewer segments.
+	 *
+	 * @return the coalesced range.
+	 */
+	public DoubleRange coalesce()
+	{
+		Builder builder = new Builder(size);
+		for (int i = 0; i < size; i += 2) {
+			builder.add(values[i], closed.get(i),
+				values[i + 1], closed.get(i + 1), true);
+		}
+		DoubleRange range = builder.build();
+		return range.equals(this) ? this : range;
+	}
+
+	@Override
+	int compareValues(int i, DoubleRange other, int j)
+	{
+		double a = values[i];
+		double b = other.values[j];
+		return a < b ? -1 : (a > b ? 1 : 0);
+	}
+
+	@Override
+	Double value(int i)
+	{
+		return values[i];
+	}
+
+	@Override
+	int hashValues()
+	{
+		return Arrays.hashCode(values);
+	}
+
+	@Override
+	PrimitiveRange.Builder<DoubleRange, Double> newBuilder(int capacity)
+	{
+		return new Builder(capacity);
+	}
+
+	private static final class Builder
+		extends PrimitiveRange.Builder<DoubleRange, Double>
+	{
+		private final double[] values;
+		private final BitSet closed;
+		private int size;
+
+		Builder(int capacity)
+		{
+			this.values = new double[capacity];
+			this.closed = new BitSet(capacity);
+		}
+
+		@Override
+		void add(DoubleRange source, int index, boolean closed)
+		{
+			add(source.values[index], closed);
+		}
+
+		@Override
+		void add(Segment<Double> segment)
+		{
+			double lower = checkValue(segment.lowerValue());
+			double upper = checkValue(segment.upperValue());
+			add(lower, segment.isLowerClosed(),
+				upper, segment.isUpperClosed(), false);
+		}
+
+		void add(double value, boolean closed)
+		{
+			this.closed.set(size, closed);
+			values[size++] = value;
+		}
+
+		/*
+		 * Appends a segment whose lower bound is not lower than the
+		 * last appended one, merging it with the last appended segment
+		 * if they overlap or are consecutive. If ulp is true, they are
+		 * also merged if no double lies between them.
+		 */
+		void add(double lower, boolean lowerClosed, double upper,
+			boolean upperClosed, boolean ulp)
+		{
+			if (lower > upper || lower == upper
+				&& !(lowerClosed && upperClosed)) {
+				return;
+			}
+			if (size > 0) {
+				double last = values[size - 1];
+				boolean lastClosed = closed.get(size - 1);
+				boolean merge;
+				if (ulp) {
+					double next = lastClosed
+						? Math.nextUp(last) : last;
+					merge = next > lower
+						|| next == lower && lowerClosed;
+				} else {
+					merge = last > lower || last == lower
+						&& (lastClosed || lowerClosed);
+				}
+				if (merge) {
+					extend(upper, upperClosed);
+					return;
+				}
+			}
+			add(lower, lowerClosed);
+			add(upper, upperClosed);
+		}
+
+		private void extend(double upper, boolean upperClosed)
+		{
+			double last = values[size - 1];
+			if (upper > last || upper == last && upperClosed) {
+				values[size - 1] = upper;
+				closed.set(size - 1, upperClosed);
+			}
+		}
+
+		@Override
+		DoubleRange build()
+		{
+			if (size == 0) {
+				return EMPTY;
+			}
+			double[] bounds = Arrays.copyOf(values, size);
+			return new DoubleRange(bounds, closed);
+		}
+	}
+}
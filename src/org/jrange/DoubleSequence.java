@@ -0,0 +1,65 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.util.List;
+
+/**
+ * A {@code Sequence} of {@code double} values, whose elements can be iterated
+ * over without boxing.
+ *
+ * @author Osman KOCAK
+ */
+public interface DoubleSequence extends IndexedSequence<Double>
+{
+	@Override
+	DoubleIterator iterator();
+
+	/**
+	 * Returns the element at the given index in this sequence, without
+	 * boxing it.
+	 *
+	 * @param index the index of the element to return.
+	 *
+	 * @return the element at the given index.
+	 *
+	 * @throws IndexOutOfBoundsException if {@code index < 0} or if
+	 *	{@code index >= size()}.
+	 */
+	double getDouble(long index);
+
+	@Override
+	DoubleSequence skip(long n);
+
+	@Override
+	DoubleSequence limit(long n);
+
+	@Override
+	List<DoubleSequence> split();
+
+	/**
+	 * Returns an array containing all the elements of this sequence, in
+	 * order. The array is allocated at its final size, computed from the
+	 * sequence's segments, and filled segment by segment.
+	 *
+	 * @return an array containing all the elements of this sequence.
+	 *
+	 * @throws IllegalStateException if this sequence has more than
+	 *	{@code Integer.MAX_VALUE} elements.
+	 */
+	double[] toArray();
+}
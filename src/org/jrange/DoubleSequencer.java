@@ -23,7 +23,7 @@ import java.math.BigDecimal;
  *
  * @author Osman KOCAK
  */
-public final class DoubleSequencer implements Sequencer<Double>
+public final class DoubleSequencer extends AbstractSequencer<Double>
 {
 	private final BigDecimal step;
 
@@ -46,6 +46,57 @@ public final class DoubleSequencer implements Sequencer<Double>
 		return BigDecimal.valueOf(current).add(step).doubleValue();
 	}
 
+	@Override
+	public Double advance(Double current, long n)
+	{
+		return advance(current.doubleValue(), n);
+	}
+
+	@Override
+	public long distance(Double from, Double to)
+	{
+		Parameters.checkCondition(from <= to, "from must be <= to");
+		return progression(from).indexOfLast(to, true);
+	}
+
+	/**
+	 * Returns the value that comes {@code n} steps after the given one,
+	 * that is {@code current + n * step} computed exactly in decimal and
+	 * then rounded to the nearest {@code double}. As long as the values
+	 * involved have no more than 15 significant digits, this is the value
+	 * that {@code n} successive calls to {@link #next(Double)} would give.
+	 *
+	 * @param current the value to start from.
+	 * @param n the number of steps to advance by.
+	 *
+	 * @return the value that comes {@code n} steps after {@code current}.
+	 *
+	 * @throws IllegalArgumentException if {@code current} is not finite.
+	 * @throws IllegalArgumentException if {@code n < 0}.
+	 */
+	public double advance(double current, long n)
+	{
+		Parameters.checkCondition(n >= 0, "n must be >= 0");
+		return progression(current).get(n);
+	}
+
+	/**
+	 * Returns the progression of the values generated by this sequencer
+	 * from the given one.
+	 *
+	 * @param start the first value of the progression.
+	 *
+	 * @return the progression starting at {@code start}.
+	 *
+	 * @throws IllegalArgumentException if {@code start} is not finite.
+	 */
+	DecimalProgression progression(double start)
+	{
+		Parameters.checkCondition(!Double.isNaN(start)
+			&& !Double.isInfinite(start), "start must be finite");
+		return new DecimalProgression(BigDecimal.valueOf(start), step);
+	}
+
 	@Override
 	public String toString()
 	{
@@ -0,0 +1,90 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.util.List;
+
+/**
+ * A {@code Sequence} whose elements can be accessed by index. Such sequences
+ * know their size and can locate any of their elements without iterating.
+ *
+ * @param <E> the type of the elements in this sequence.
+ *
+ * @author Osman KOCAK
+ */
+public interface IndexedSequence<E extends Comparable<? super E>>
+	extends Sequence<E>
+{
+	/**
+	 * Returns the number of elements in this sequence. If this sequence
+	 * contains more than {@code Long.MAX_VALUE} elements, returns
+	 * {@code Long.MAX_VALUE}.
+	 *
+	 * @return the number of elements in this sequence.
+	 */
+	long size();
+
+	/**
+	 * Returns the element at the given index in this sequence.
+	 *
+	 * @param index the index of the element to return.
+	 *
+	 * @return the element at the given index.
+	 *
+	 * @throws IndexOutOfBoundsException if {@code index < 0} or if
+	 *	{@code index >= size()}.
+	 */
+	E get(long index);
+
+	/**
+	 * Returns the sequence made of the elements of this sequence but the
+	 * {@code n} first ones. The returned sequence is empty if this sequence
+	 * has no more than {@code n} elements.
+	 *
+	 * @param n the number of elements to skip.
+	 *
+	 * @return the elements of this sequence, starting at index {@code n}.
+	 *
+	 * @throws IllegalArgumentException if {@code n < 0}.
+	 */
+	IndexedSequence<E> skip(long n);
+
+	/**
+	 * Returns the sequence made of the {@code n} first elements of this
+	 * sequence. The returned sequence is this sequence's equal if it has no
+	 * more than {@code n} elements.
+	 *
+	 * @param n the number of elements to keep.
+	 *
+	 * @return the {@code n} first elements of this sequence.
+	 *
+	 * @throws IllegalArgumentException if {@code n < 0}.
+	 */
+	IndexedSequence<E> limit(long n);
+
+	/**
+	 * Splits this sequence into two consecutive parts of comparable sizes,
+	 * so that they can be processed in parallel, and possibly split again.
+	 * This sequence is split at the boundary between two of its segments
+	 * if one lies close enough to its middle, and at its middle otherwise.
+	 * If this sequence has less than two elements, the returned list only
+	 * holds this sequence.
+	 *
+	 * @return the parts of this sequence, in order.
+	 */
+	List<? extends IndexedSequence<E>> split();
+}
@@ -0,0 +1,75 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.nio.IntBuffer;
+import java.util.Iterator;
+
+/**
+ * An {@code Iterator} specialized for {@code int} values. Elements can be
+ * retrieved without boxing through {@link #nextInt()}.
+ *
+ * @author Osman KOCAK
+ */
+public interface IntIterator extends Iterator<Integer>
+{
+	/**
+	 * Returns the next element in the iteration, without boxing it.
+	 *
+	 * @return the next element in the iteration.
+	 *
+	 * @throws java.util.NoSuchElementException if the iteration has no
+	 *	more elements.
+	 */
+	int nextInt();
+
+	/**
+	 * Copies the next elements of the iteration into the given range of the
+	 * given array, until either the range is full or the iteration has no
+	 * more elements. Calling this method repeatedly with the same array
+	 * lets a sequence be processed in chunks, never holding it entirely.
+	 *
+	 * @param dst the array to copy the elements into.
+	 * @param offset the index at which to copy the first element.
+	 * @param length the maximum number of elements to copy.
+	 *
+	 * @return the number of elements copied, {@code 0} if the iteration
+	 *	has no more elements (or if {@code length == 0}).
+	 *
+	 * @throws NullPointerException if {@code dst} is {@code null}.
+	 * @throws IndexOutOfBoundsException if {@code offset} or
+	 *	{@code length} don't denote a range of {@code dst}.
+	 */
+	int fill(int[] dst, int offset, int length);
+
+	/**
+	 * Copies the next elements of the iteration into the given buffer,
+	 * from its current position, until either the buffer is full or the
+	 * iteration has no more elements. The buffer's position is advanced by
+	 * the number of copied elements.
+	 *
+	 * @param dst the buffer to copy the elements into.
+	 *
+	 * @return the number of elements copied, {@code 0} if the iteration
+	 *	has no more elements (or if the buffer is full).
+	 *
+	 * @throws NullPointerException if {@code dst} is {@code null}.
+	 * @throws java.nio.ReadOnlyBufferException if {@code dst} is
+	 *	read-only.
+	 */
+	int fill(IntBuffer dst);
+}
@@ -0,0 +1,233 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An immutable range of {@code int}s. {@code IntRange}s provide the same
+ * algebra as {@code Range}s, but store their bounds in an {@code int[]} (and
+ * their closedness in a {@code BitSet}) so that no boxing occurs, neither in
+ * memory nor when testing whether a value is contained.
+ *
+ * @author Osman KOCAK
+ */
+public final class IntRange
+	extends PrimitiveRange<IntRange, Integer>
+{
+	private static final IntRange EMPTY = new IntRange(new int[0],
+		new BitSet());
+
+	/**
+	 * Returns the empty {@code IntRange}.
+	 *
+	 * @return the empty {@code IntRange}.
+	 */
+	public static IntRange empty()
+	{
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the closed interval {@code [lower, upper]}.
+	 *
+	 * @param lower the interval's lower bound.
+	 * @param upper the interval's upper bound.
+	 *
+	 * @return the closed interval {@code [lower, upper]}.
+	 */
+	public static IntRange closed(int lower, int upper)
+	{
+		return interval(lower, true, upper, true);
+	}
+
+	/**
+	 * Returns the opened interval {@code ]lower, upper[}.
+	 *
+	 * @param lower the interval's lower bound.
+	 * @param upper the interval's upper bound.
+	 *
+	 * @return the opened interval {@code ]lower, upper[}.
+	 */
+	public static IntRange opened(int lower, int upper)
+	{
+		return interval(lower, false, upper, false);
+	}
+
+	/**
+	 * Returns the interval defined by the given bounds. Note that if the
+	 * upper bound is lower than the lower bound, or, if the bounds' values
+	 * are equal and at least one of them is opened, the returned interval
+	 * will be empty.
+	 *
+	 * @param lower the interval's lower bound.
+	 * @param lowerClosed whether the lower bound is closed.
+	 * @param upper the interval's upper bound.
+	 * @param upperClosed whether the upper bound is closed.
+	 *
+	 * @return the interval defined by the given bounds.
+	 */
+	public static IntRange interval(int lower, boolean lowerClosed,
+		int upper, boolean upperClosed)
+	{
+		if (lower > upper
+			|| lower == upper && !(lowerClosed && upperClosed)) {
+			return EMPTY;
+		}
+		BitSet closed = new BitSet(2);
+		closed.set(0, lowerClosed);
+		closed.set(1, upperClosed);
+		return new IntRange(new int[] {lower, upper}, closed);
+	}
+
+	/**
+	 * Returns the {@code IntRange} equal to the given {@code Range}.
+	 *
+	 * @param range the range to convert.
+	 *
+	 * @return the {@code IntRange} equal to the given range.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public static IntRange valueOf(Range<Integer> range)
+	{
+		return convert(range, EMPTY);
+	}
+
+	private final int[] values;
+
+	private IntRange(int[] values, BitSet closed)
+	{
+		super(closed, values.length);
+		this.values = values;
+	}
+
+	/**
+	 * Returns whether this range contains the given value.
+	 *
+	 * @param value the value to test.
+	 *
+	 * @return whether this range contains the given value.
+	 */
+	public boolean contains(int value)
+	{
+		int low = 0;
+		int high = size / 2 - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int i = 2 * mid;
+			int lower = values[i];
+			int upper = values[i + 1];
+			if (value < lower || value == lower && !closed.get(i)) {
+				high = mid - 1;
+			} else if (value > upper
+				|| value == upper && !closed.get(i + 1)) {
+				low = mid + 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the sequence of the values contained in this range, as
+	 * generated by the given sequencer. The returned sequence can be
+	 * iterated over without boxing its elements.
+	 *
+	 * @param sequencer the sequencer to use.
+	 *
+	 * @return the sequence of the values of this range.
+	 *
+	 * @throws NullPointerException if {@code sequencer} is {@code null}.
+	 */
+	public IntSequence sequence(IntegerSequencer sequencer)
+	{
+		Parameters.checkNotNull(sequencer);
+		return new LazyIntSequence(segments(), sequencer.step());
+	}
+
+	@Override
+	int compareValues(int i, IntRange other, int j)
+	{
+		int a = values[i];
+		int b = other.values[j];
+		return a < b ? -1 : (a == b ? 0 : 1);
+	}
+
+	@Override
+	Integer value(int i)
+	{
+		return values[i];
+	}
+
+	@Override
+	int hashValues()
+	{
+		return Arrays.hashCode(values);
+	}
+
+	@Override
+	PrimitiveRange.Builder<IntRange, Integer> newBuilder(int capacity)
+	{
+		return new Builder(capacity);
+	}
+
+	private static final class Builder
+		extends PrimitiveRange.Builder<IntRange, Integer>
+	{
+		private final int[] values;
+		private final BitSet closed;
+		private int size;
+
+		Builder(int capacity)
+		{
+			this.values = new int[capacity];
+			this.closed = new BitSet(capacity);
+		}
+
+		@Override
+		void add(IntRange source, int index, boolean closed)
+		{
+			add(source.values[index], closed);
+		}
+
+		@Override
+		void add(Segment<Integer> segment)
+		{
+			add(segment.lowerValue(), segment.isLowerClosed());
+			add(segment.upperValue(), segment.isUpperClosed());
+		}
+
+		void add(int value, boolean closed)
+		{
+			this.closed.set(size, closed);
+			values[size++] = value;
+		}
+
+		@Override
+		IntRange build()
+		{
+			if (size == 0) {
+				return EMPTY;
+			}
+			int[] bounds = Arrays.copyOf(values, size);
+			return new IntRange(bounds, closed);
+		}
+	}
+}
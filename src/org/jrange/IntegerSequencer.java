@@ -21,7 +21,7 @@ package org.jrange;
  *
  * @author Osman KOCAK
  */
-public final class IntegerSequencer implements Sequencer<Integer>
+public final class IntegerSequencer extends AbstractSequencer<Integer>
 {
 	private final int step;
 
@@ -38,12 +38,36 @@ public final class IntegerSequencer implements Sequencer<Integer>
 		this.step = step;
 	}
 
+	/**
+	 * Returns the step between two successive values.
+	 *
+	 * @return the step between two successive values.
+	 */
+	int step()
+	{
+		return step;
+	}
+
 	@Override
 	public Integer next(Integer current)
 	{
 		return current + step;
 	}
 
+	@Override
+	public Integer advance(Integer current, long n)
+	{
+		Parameters.checkCondition(n >= 0, "n must be >= 0");
+		return (int) (current + n * step);
+	}
+
+	@Override
+	public long distance(Integer from, Integer to)
+	{
+		Parameters.checkCondition(from <= to, "from must be <= to");
+		return ((long) to - from) / step;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -0,0 +1,444 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+
+package org.jrange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable index of intervals, each one associated to a value, that finds
+ * the intervals containing a given element or overlapping a given interval in
+ * {@code O(log(n) + k)} time, where {@code k} is the number of intervals found.
+ * Unlike ranges, the intervals are kept as given: they may overlap, and an
+ * interval may be indexed several times. Instances are bulk loaded through a
+ * {@link Builder}, in {@code O(n log(n))} time.
+ *
+ * @param <E> the type of the elements in the intervals.
+ * @param <V> the type of the values associated to the intervals.
+ *
+ * @author Osman KOCAK
+ */
+public final class IntervalIndex<E extends Comparable<? super E>, V>
+{
+	/**
+	 * Initiates the creation of a new interval index.
+	 *
+	 * @param <E> the type of the elements in the intervals.
+	 * @param <V> the type of the values associated to the intervals.
+	 *
+	 * @return a builder to load the index's entries.
+	 */
+	public static <E extends Comparable<? super E>, V>
+		Builder<E, V> builder()
+	{
+		return new Builder<E, V>();
+	}
+
+	/**
+	 * An interval index builder.
+	 *
+	 * @param <E> the type of the elements in the intervals.
+	 * @param <V> the type of the values associated to the intervals.
+	 */
+	public static final class Builder<E extends Comparable<? super E>, V>
+	{
+		private final List<Entry<E, V>> entries;
+
+		private Builder()
+		{
+			entries = new ArrayList<Entry<E, V>>();
+		}
+
+		/**
+		 * Adds an entry to the index to build. Empty intervals are
+		 * accepted, but never found by queries.
+		 *
+		 * @param interval the entry's interval.
+		 * @param value the value associated to the interval, may be
+		 *	{@code null}.
+		 *
+		 * @return this builder.
+		 *
+		 * @throws NullPointerException if {@code interval} is
+		 *	{@code null}.
+		 */
+		public Builder<E, V> put(Interval<E> interval, V value)
+		{
+			Parameters.checkNotNull(interval);
+			entries.add(new Entry<E, V>(interval, value));
+			return this;
+		}
+
+		/**
+		 * Builds the index holding all the entries added so far. This
+		 * builder can still be used afterwards.
+		 *
+		 * @return the built index.
+		 */
+		public IntervalIndex<E, V> build()
+		{
+			return new IntervalIndex<E, V>(entries);
+		}
+	}
+
+	/**
+	 * An entry of an interval index.
+	 *
+	 * @param <E> the type of the elements in the interval.
+	 * @param <V> the type of the value associated to the interval.
+	 */
+	public static final class Entry<E extends Comparable<? super E>, V>
+	{
+		private final Interval<E> interval;
+		private final V value;
+		/* The bounds' values are null if the interval is empty. */
+		private final E lower;
+		private final E upper;
+		private final boolean lowerOpened;
+		private final boolean upperClosed;
+
+		private Entry(Interval<E> interval, V value)
+		{
+			this.interval = interval;
+			this.value = value;
+			if (interval.isEmpty()) {
+				lower = null;
+				upper = null;
+				lowerOpened = false;
+				upperClosed = false;
+			} else {
+				Bound<E> l = interval.lowerBound();
+				Bound<E> u = interval.upperBound();
+				lower = l.value();
+				upper = u.value();
+				lowerOpened = l.isOpened();
+				upperClosed = u.isClosed();
+			}
+		}
+
+		/**
+		 * Returns the interval of this entry.
+		 *
+		 * @return the interval of this entry.
+		 */
+		public Interval<E> interval()
+		{
+			return interval;
+		}
+
+		/**
+		 * Returns the value associated to the interval of this entry.
+		 *
+		 * @return the value of this entry.
+		 */
+		public V value()
+		{
+			return value;
+		}
+
+		@Override
+		public String toString()
+		{
+			return interval + "=" + value;
+		}
+
+		/* Compares the lower cut of this entry with the given cut. */
+		int compareLower(E value, boolean above)
+		{
+			return compareCuts(lower, lowerOpened, value, above);
+		}
+
+		/* Compares the upper cut of this entry with the given cut. */
+		int compareUpper(E value, boolean above)
+		{
+			return compareCuts(upper, upperClosed, value, above);
+		}
+	}
+
+	/*
+	 * A bound is seen as a "cut" just below or just above its value: a
+	 * closed lower bound and an opened upper bound are just below, the
+	 * others just above. An interval holds the elements between its lower
+	 * and its upper cut, and an element e lies between the cuts just below
+	 * and just above it.
+	 */
+	private static <E extends Comparable<? super E>> int compareCuts(
+		E v1, boolean above1, E v2, boolean above2)
+	{
+		int cmp = v1.compareTo(v2);
+		if (cmp != 0 || above1 == above2) {
+			return cmp;
+		}
+		return above1 ? 1 : -1;
+	}
+
+	private final List<Entry<E, V>> entries;
+	private final Entry<E, V>[] sorted;
+	private final Node<E, V> root;
+
+	private IntervalIndex(List<Entry<E, V>> entries)
+	{
+		this.entries = Collections.unmodifiableList(
+			new ArrayList<Entry<E, V>>(entries));
+		List<Entry<E, V>> nonEmpty = new ArrayList<Entry<E, V>>();
+		for (Entry<E, V> entry : entries) {
+			if (entry.lower != null) {
+				nonEmpty.add(entry);
+			}
+		}
+		this.sorted = nonEmpty.toArray(new Entry[nonEmpty.size()]);
+		Arrays.sort(sorted, new LowerComparator<E, V>());
+		this.root = Node.create(Arrays.asList(sorted));
+	}
+
+	/**
+	 * Returns the number of entries in this index.
+	 *
+	 * @return the number of entries in this index.
+	 */
+	public int size()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * Returns whether this index has no entry.
+	 *
+	 * @return whether this index is empty.
+	 */
+	public boolean isEmpty()
+	{
+		return entries.isEmpty();
+	}
+
+	/**
+	 * Returns all the entries of this index, in the order in which they
+	 * have been added.
+	 *
+	 * @return the entries of this index.
+	 */
+	public List<Entry<E, V>> entries()
+	{
+		return entries;
+	}
+
+	/**
+	 * Returns the entries whose interval contains the given element, in no
+	 * particular order.
+	 *
+	 * @param value the element to look for.
+	 *
+	 * @return the entries whose interval contains {@code value}.
+	 *
+	 * @throws NullPointerException if {@code value} is {@code null}.
+	 */
+	public List<Entry<E, V>> containing(E value)
+	{
+		Parameters.checkNotNull(value);
+		List<Entry<E, V>> found = new ArrayList<Entry<E, V>>();
+		stab(value, false, found);
+		return found;
+	}
+
+	/**
+	 * Returns the entries whose interval overlaps the given interval, in no
+	 * particular order. Nothing overlaps an empty interval.
+	 *
+	 * @param interval the interval to look for.
+	 *
+	 * @return the entries whose interval overlaps {@code interval}.
+	 *
+	 * @throws NullPointerException if {@code interval} is {@code null}.
+	 */
+	public List<Entry<E, V>> overlapping(Interval<? extends E> interval)
+	{
+		Parameters.checkNotNull(interval);
+		List<Entry<E, V>> found = new ArrayList<Entry<E, V>>();
+		if (interval.isEmpty()) {
+			return found;
+		}
+		Bound<? extends E> l = interval.lowerBound();
+		Bound<? extends E> u = interval.upperBound();
+		E lower = l.value();
+		E upper = u.value();
+		boolean lowerOpened = l.isOpened();
+		boolean upperClosed = u.isClosed();
+		stab(lower, lowerOpened, found);
+		int i = firstAbove(lower, lowerOpened);
+		while (i < sorted.length
+			&& sorted[i].compareLower(upper, upperClosed) < 0) {
+			found.add(sorted[i++]);
+		}
+		return found;
+	}
+
+	@Override
+	public String toString()
+	{
+		return entries.toString();
+	}
+
+	/*
+	 * Collects the entries whose lower cut is at or below the given cut and
+	 * whose upper cut is above it. Only one path of the tree is walked.
+	 */
+	private void stab(E value, boolean above, List<Entry<E, V>> found)
+	{
+		Node<E, V> node = root;
+		while (node != null) {
+			if (node.compareCenter(value, above) > 0) {
+				node.collectLower(value, above, found);
+				node = node.left;
+			} else {
+				node.collectUpper(value, above, found);
+				node = node.right;
+			}
+		}
+	}
+
+	/* Index of the first entry whose lower cut is above the given cut. */
+	private int firstAbove(E value, boolean above)
+	{
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (sorted[mid].compareLower(value, above) <= 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 * A node of a centered interval tree. The center is the lower cut of
+	 * the median entry (by lower cut) of the subtree. The node holds the
+	 * entries whose interval spans the center, sorted by increasing lower
+	 * cut and by decreasing upper cut; the entries lying entirely below the
+	 * center go to the left subtree, and the others, lying entirely above
+	 * it, to the right one. Both subtrees have at most half the entries of
+	 * the node, so the tree's height is logarithmic.
+	 */
+	private static final class Node<E extends Comparable<? super E>, V>
+	{
+		static <E extends Comparable<? super E>, V> Node<E, V> create(
+			List<Entry<E, V>> entries)
+		{
+			if (entries.isEmpty()) {
+				return null;
+			}
+			Entry<E, V> median = entries.get(entries.size() / 2);
+			E value = median.lower;
+			boolean above = median.lowerOpened;
+			List<Entry<E, V>> left, right, spanning;
+			left = new ArrayList<Entry<E, V>>();
+			right = new ArrayList<Entry<E, V>>();
+			spanning = new ArrayList<Entry<E, V>>();
+			for (Entry<E, V> entry : entries) {
+				if (entry.compareUpper(value, above) <= 0) {
+					left.add(entry);
+				} else if (entry.compareLower(value, above)
+					> 0) {
+					right.add(entry);
+				} else {
+					spanning.add(entry);
+				}
+			}
+			return new Node<E, V>(median, spanning, create(left),
+				create(right));
+		}
+
+		final Entry<E, V> center;
+		final Entry<E, V>[] byLower;
+		final Entry<E, V>[] byUpper;
+		final Node<E, V> left;
+		final Node<E, V> right;
+
+		private Node(Entry<E, V> center, List<Entry<E, V>> spanning,
+			Node<E, V> left, Node<E, V> right)
+		{
+			this.center = center;
+			int n = spanning.size();
+			this.byLower = spanning.toArray(new Entry[n]);
+			this.byUpper = byLower.clone();
+			Arrays.sort(byUpper, new UpperComparator<E, V>());
+			this.left = left;
+			this.right = right;
+		}
+
+		/* Compares the center of this node with the given cut. */
+		int compareCenter(E value, boolean above)
+		{
+			return center.compareLower(value, above);
+		}
+
+		/* Collects the entries whose lower cut is not above the cut. */
+		void collectLower(E value, boolean above,
+			List<Entry<E, V>> found)
+		{
+			for (Entry<E, V> entry : byLower) {
+				if (entry.compareLower(value, above) > 0) {
+					return;
+				}
+				found.add(entry);
+			}
+		}
+
+		/* Collects the entries whose upper cut is above the cut. */
+		void collectUpper(E value, boolean above,
+			List<Entry<E, V>> found)
+		{
+			for (Entry<E, V> entry : byUpper) {
+				if (entry.compareUpper(value, above) <= 0) {
+					return;
+				}
+				found.add(entry);
+			}
+		}
+	}
+
+	private static final class LowerComparator<
+		E extends Comparable<? super E>, V>
+		implements Comparator<Entry<E, V>>
+	{
+		@Override
+		public int compare(Entry<E, V> e1, Entry<E, V> e2)
+		{
+			return compareCuts(e1.lower, e1.lowerOpened,
+				e2.lower, e2.lowerOpened);
+		}
+	}
+
+	/* Decreasing order of the upper cuts. */
+	private static final class UpperComparator<
+		E extends Comparable<? super E>, V>
+		implements Comparator<Entry<E, V>>
+	{
+		@Override
+		public int compare(Entry<E, V> e1, Entry<E, V> e2)
+		{
+			return compareCuts(e2.upper, e2.upperClosed,
+				e1.upper, e1.upperClosed);
+		}
+	}
+}
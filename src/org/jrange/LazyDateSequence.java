@@ -0,0 +1,155 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@code DateSequence} driven by a {@code DateSequencer}. The segments'
+ * bounds are converted to epoch milliseconds once, at creation, and the
+ * sequence is computed on these primitive values; {@code Date} objects are
+ * only created by the {@code Date} iterator, one per element returned.
+ *
+ * @author Osman KOCAK
+ */
+final class LazyDateSequence extends AbstractSequence<Date>
+	implements DateSequence
+{
+	private final LongSequence millis;
+
+	/**
+	 * Creates a new {@code LazyDateSequence}.
+	 *
+	 * @param segments the segments to sequence.
+	 * @param step the step between two successive elements, in ms.
+	 */
+	LazyDateSequence(List<Segment<Date>> segments, long step)
+	{
+		List<Segment<Long>> times;
+		times = new ArrayList<Segment<Long>>(segments.size());
+		for (Segment<Date> segment : segments) {
+			times.add(new Segment<Long>(
+				segment.lowerValue().getTime(),
+				segment.isLowerClosed(),
+				segment.upperValue().getTime(),
+				segment.isUpperClosed()));
+		}
+		this.millis = new LazyLongSequence(times, step);
+	}
+
+	private LazyDateSequence(LongSequence millis)
+	{
+		this.millis = millis;
+	}
+
+	@Override
+	public LongSequence millis()
+	{
+		return millis;
+	}
+
+	@Override
+	public long size()
+	{
+		return millis.size();
+	}
+
+	@Override
+	public Date get(long index)
+	{
+		return new Date(millis.getLong(index));
+	}
+
+	@Override
+	public DateSequence skip(long n)
+	{
+		return new LazyDateSequence(millis.skip(n));
+	}
+
+	@Override
+	public DateSequence limit(long n)
+	{
+		return new LazyDateSequence(millis.limit(n));
+	}
+
+	@Override
+	public List<DateSequence> split()
+	{
+		List<LongSequence> parts = millis.split();
+		if (parts.size() == 1) {
+			return Collections.<DateSequence>singletonList(this);
+		}
+		return Arrays.<DateSequence>asList(
+			new LazyDateSequence(parts.get(0)),
+			new LazyDateSequence(parts.get(1)));
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (o instanceof LazyDateSequence) {
+			return millis.equals(((LazyDateSequence) o).millis);
+		}
+		return super.equals(o);
+	}
+
+	/* A Date's hash code is the one of its time, as a Long. */
+	@Override
+	public int hashCode()
+	{
+		return millis.hashCode();
+	}
+
+	@Override
+	public Iterator<Date> iterator()
+	{
+		return new SequenceIterator(millis.iterator());
+	}
+
+	private static final class SequenceIterator implements Iterator<Date>
+	{
+		private final LongIterator millis;
+
+		SequenceIterator(LongIterator millis)
+		{
+			this.millis = millis;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return millis.hasNext();
+		}
+
+		@Override
+		public Date next()
+		{
+			return new Date(millis.nextLong());
+		}
+
+		@Override
+		public void remove()
+		{
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,284 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code DoubleSequence} driven by a {@code DoubleSequencer}. The elements
+ * of each segment are the terms of a {@code DecimalProgression} starting at
+ * the segment's lower value; the indexes of the first and last terms lying in
+ * the segment are computed once, at creation, so iterating involves neither
+ * bound checks nor, in most cases, allocations.
+ *
+ * @author Osman KOCAK
+ */
+final class LazyDoubleSequence extends ArithmeticSequence<Double>
+	implements DoubleSequence
+{
+	private static final LazyDoubleSequence EMPTY;
+	static {
+		EMPTY = new LazyDoubleSequence(new DecimalProgression[0],
+			new long[0]);
+	}
+
+	private final DecimalProgression[] progressions;
+	/* indexes of the first and last terms of segment k at 2k and 2k + 1. */
+	private final long[] indexes;
+
+	private LazyDoubleSequence(DecimalProgression[] progressions,
+		long[] indexes)
+	{
+		super(counts(indexes));
+		this.progressions = progressions;
+		this.indexes = indexes;
+	}
+
+	/**
+	 * Creates a new {@code LazyDoubleSequence}.
+	 *
+	 * @param segments the segments to sequence.
+	 * @param sequencer the sequencer to use.
+	 *
+	 * @return the created sequence.
+	 *
+	 * @throws IllegalArgumentException if a segment's lower value is not
+	 *	finite.
+	 */
+	static LazyDoubleSequence create(List<Segment<Double>> segments,
+		DoubleSequencer sequencer)
+	{
+		int n = segments.size();
+		DecimalProgression[] progressions = new DecimalProgression[n];
+		long[] indexes = new long[2 * n];
+		int k = 0;
+		for (Segment<Double> segment : segments) {
+			double lower = segment.lowerValue();
+			DecimalProgression progression;
+			progression = sequencer.progression(lower);
+			long first = segment.isLowerClosed() ? 0 : 1;
+			double upper = segment.upperValue();
+			boolean closed = segment.isUpperClosed();
+			long last = progression.indexOfLast(upper, closed);
+			if (first <= last) {
+				progressions[k] = progression;
+				indexes[2 * k] = first;
+				indexes[2 * k + 1] = last;
+				k++;
+			}
+		}
+		return new LazyDoubleSequence(Arrays.copyOf(progressions, k),
+			Arrays.copyOf(indexes, 2 * k));
+	}
+
+	private static long[] counts(long[] indexes)
+	{
+		long[] counts = new long[indexes.length / 2];
+		for (int k = 0; k < counts.length; k++) {
+			long count = indexes[2 * k + 1] - indexes[2 * k] + 1;
+			counts[k] = count < 0 ? Long.MAX_VALUE : count;
+		}
+		return counts;
+	}
+
+	@Override
+	public Double get(long index)
+	{
+		return getDouble(index);
+	}
+
+	@Override
+	public double getDouble(long index)
+	{
+		int k = segmentOf(index);
+		long i = indexes[2 * k] + index - offsets[k];
+		return progressions[k].get(i);
+	}
+
+	@Override
+	public DoubleSequence skip(long n)
+	{
+		if (!checkSkip(n)) {
+			return EMPTY;
+		}
+		int k = segmentOf(n);
+		int length = progressions.length;
+		DecimalProgression[] tail;
+		tail = Arrays.copyOfRange(progressions, k, length);
+		long[] indexes = Arrays.copyOfRange(this.indexes, 2 * k,
+			2 * length);
+		indexes[0] += n - offsets[k];
+		return new LazyDoubleSequence(tail, indexes);
+	}
+
+	@Override
+	public DoubleSequence limit(long n)
+	{
+		if (!checkLimit(n)) {
+			return this;
+		}
+		if (n == 0) {
+			return EMPTY;
+		}
+		int k = segmentOf(n - 1);
+		DecimalProgression[] head = Arrays.copyOf(progressions, k + 1);
+		long[] indexes = Arrays.copyOf(this.indexes, 2 * k + 2);
+		indexes[2 * k + 1] = indexes[2 * k] + n - 1 - offsets[k];
+		return new LazyDoubleSequence(head, indexes);
+	}
+
+	@Override
+	public List<DoubleSequence> split()
+	{
+		long point = splitPoint();
+		if (point == 0) {
+			return Collections.<DoubleSequence>singletonList(this);
+		}
+		return Arrays.<DoubleSequence>asList(limit(point), skip(point));
+	}
+
+	@Override
+	public double[] toArray()
+	{
+		double[] array = new double[arraySize()];
+		iterator().fill(array, 0, array.length);
+		return array;
+	}
+
+	@Override
+	public DoubleIterator iterator()
+	{
+		return new SequenceIterator();
+	}
+
+	private final class SequenceIterator implements DoubleIterator
+	{
+		private int segment;
+		private long index;
+		private long last;
+
+		SequenceIterator()
+		{
+			if (progressions.length > 0) {
+				index = indexes[0];
+				last = indexes[1];
+			}
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return segment < progressions.length;
+		}
+
+		@Override
+		public double nextDouble()
+		{
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			double current = progressions[segment].get(index);
+			if (index == last) {
+				if (++segment < progressions.length) {
+					index = indexes[2 * segment];
+					last = indexes[2 * segment + 1];
+				}
+			} else {
+				index++;
+			}
+			return current;
+		}
+
+		@Override
+		public int fill(double[] dst, int offset, int length)
+		{
+			Parameters.checkBounds(dst.length, offset, length);
+			int n = 0;
+			while (n < length && hasNext()) {
+				int count = chunk(length - n);
+				DecimalProgression p = progressions[segment];
+				long term = index;
+				int end = offset + n + count;
+				for (int i = offset + n; i < end; i++) {
+					dst[i] = p.get(term++);
+				}
+				n += count;
+				move(count);
+			}
+			return n;
+		}
+
+		@Override
+		public int fill(DoubleBuffer dst)
+		{
+			int n = 0;
+			while (dst.hasRemaining() && hasNext()) {
+				int count = chunk(dst.remaining());
+				DecimalProgression p = progressions[segment];
+				long term = index;
+				for (int i = 0; i < count; i++) {
+					dst.put(p.get(term++));
+				}
+				n += count;
+				move(count);
+			}
+			return n;
+		}
+
+		@Override
+		public Double next()
+		{
+			return nextDouble();
+		}
+
+		@Override
+		public void remove()
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		/* The number of steps left in the current segment. */
+		private long steps()
+		{
+			return last - index;
+		}
+
+		/* The number of elements left in the segment, capped to max. */
+		private int chunk(int max)
+		{
+			long steps = steps();
+			return steps < max ? (int) steps + 1 : max;
+		}
+
+		/* Moves forward by count elements of the current segment. */
+		private void move(int count)
+		{
+			if (count <= steps()) {
+				index += count;
+			} else {
+				if (++segment < progressions.length) {
+					index = indexes[2 * segment];
+					last = indexes[2 * segment + 1];
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,332 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@code IntSequence} driven by an {@code IntegerSequencer}. Like
+ * {@code LazySequence}, it computes its elements on demand, but it does so on
+ * primitive values: the first and last elements of each segment are computed
+ * once, at creation, and iterating doesn't allocate anything but the iterator.
+ *
+ * @author Osman KOCAK
+ */
+final class LazyIntSequence extends ArithmeticSequence<Integer>
+	implements IntSequence
+{
+	/* first and last elements of the k-th segment at 2k and 2k + 1. */
+	private final int[] bounds;
+	private final int step;
+
+	/**
+	 * Creates a new {@code LazyIntSequence}.
+	 *
+	 * @param segments the segments to sequence.
+	 * @param step the step between two successive elements.
+	 */
+	LazyIntSequence(List<Segment<Integer>> segments, int step)
+	{
+		this(bounds(segments, step), step);
+	}
+
+	private LazyIntSequence(int[] bounds, int step)
+	{
+		super(counts(bounds, step));
+		this.bounds = bounds;
+		this.step = step;
+	}
+
+	private static int[] bounds(List<Segment<Integer>> segments, int step)
+	{
+		int[] bounds = new int[2 * segments.size()];
+		int n = 0;
+		for (Segment<Integer> segment : segments) {
+			long first = segment.lowerValue();
+			if (!segment.isLowerClosed()) {
+				first += step;
+			}
+			long last = segment.upperValue();
+			if (!segment.isUpperClosed()) {
+				last--;
+			}
+			if (first <= last) {
+				bounds[n++] = (int) first;
+				bounds[n++] = (int) last;
+			}
+		}
+		return n == bounds.length ? bounds : Arrays.copyOf(bounds, n);
+	}
+
+	private static long[] counts(int[] bounds, int step)
+	{
+		long[] counts = new long[bounds.length / 2];
+		for (int k = 0; k < counts.length; k++) {
+			long first = bounds[2 * k];
+			long last = bounds[2 * k + 1];
+			counts[k] = (last - first) / step + 1;
+		}
+		return counts;
+	}
+
+	/* The last element of the k-th segment. */
+	private long last(int k)
+	{
+		long first = bounds[2 * k];
+		return first + (bounds[2 * k + 1] - first) / step * step;
+	}
+
+	/*
+	 * Two LazyIntSequences are compared segment by segment: from a common
+	 * element, both sequences hold the same elements up to the end of the
+	 * shortest segment if they have the same step, so the walk below takes
+	 * a constant number of rounds per segment.
+	 */
+	@Override
+	public boolean equals(Object o)
+	{
+		if (!(o instanceof LazyIntSequence)) {
+			return super.equals(o);
+		}
+		LazyIntSequence other = (LazyIntSequence) o;
+		if (size() != other.size()) {
+			return false;
+		}
+		int n = bounds.length / 2;
+		int m = other.bounds.length / 2;
+		int i = 0;
+		int j = 0;
+		long x = n > 0 ? bounds[0] : 0;
+		long y = m > 0 ? other.bounds[0] : 0;
+		while (i < n && j < m) {
+			if (x != y) {
+				return false;
+			}
+			long u = last(i);
+			long v = other.last(j);
+			if (x != u && y != v) {
+				if (step != other.step) {
+					return false;
+				}
+				x = Math.min(u, v);
+				y = x;
+				continue;
+			}
+			if (x == u) {
+				x = ++i < n ? bounds[2 * i] : 0;
+			} else {
+				x += step;
+			}
+			if (y == v) {
+				y = ++j < m ? other.bounds[2 * j] : 0;
+			} else {
+				y += other.step;
+			}
+		}
+		return i == n && j == m;
+	}
+
+	/* The element-wise hash, computed segment by segment. */
+	@Override
+	public int hashCode()
+	{
+		int hash = 7;
+		for (int k = 0; k < bounds.length / 2; k++) {
+			long count = offsets[k + 1] - offsets[k];
+			hash = hash(hash, bounds[2 * k], step, count);
+		}
+		return hash;
+	}
+
+	@Override
+	public Integer get(long index)
+	{
+		return getInt(index);
+	}
+
+	@Override
+	public int getInt(long index)
+	{
+		int k = segmentOf(index);
+		return (int) (bounds[2 * k] + (index - offsets[k]) * step);
+	}
+
+	@Override
+	public IntSequence skip(long n)
+	{
+		if (!checkSkip(n)) {
+			return new LazyIntSequence(new int[0], step);
+		}
+		int k = segmentOf(n);
+		int[] tail = Arrays.copyOfRange(bounds, 2 * k, bounds.length);
+		tail[0] = getInt(n);
+		return new LazyIntSequence(tail, step);
+	}
+
+	@Override
+	public IntSequence limit(long n)
+	{
+		if (!checkLimit(n)) {
+			return this;
+		}
+		if (n == 0) {
+			return new LazyIntSequence(new int[0], step);
+		}
+		int k = segmentOf(n - 1);
+		int[] head = Arrays.copyOf(bounds, 2 * k + 2);
+		head[2 * k + 1] = getInt(n - 1);
+		return new LazyIntSequence(head, step);
+	}
+
+	@Override
+	public List<IntSequence> split()
+	{
+		long point = splitPoint();
+		if (point == 0) {
+			return Collections.<IntSequence>singletonList(this);
+		}
+		return Arrays.<IntSequence>asList(limit(point), skip(point));
+	}
+
+	@Override
+	public int[] toArray()
+	{
+		int[] array = new int[arraySize()];
+		iterator().fill(array, 0, array.length);
+		return array;
+	}
+
+	@Override
+	public IntIterator iterator()
+	{
+		return new SequenceIterator();
+	}
+
+	private final class SequenceIterator implements IntIterator
+	{
+		private int index;
+		private long next;
+
+		SequenceIterator()
+		{
+			if (bounds.length > 0) {
+				next = bounds[0];
+			}
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return index < bounds.length;
+		}
+
+		@Override
+		public int nextInt()
+		{
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			int current = (int) next;
+			next += step;
+			if (next > bounds[index + 1]) {
+				index += 2;
+				if (index < bounds.length) {
+					next = bounds[index];
+				}
+			}
+			return current;
+		}
+
+		@Override
+		public int fill(int[] dst, int offset, int length)
+		{
+			Parameters.checkBounds(dst.length, offset, length);
+			int n = 0;
+			while (n < length && hasNext()) {
+				int count = chunk(length - n);
+				long value = next;
+				int end = offset + n + count;
+				for (int i = offset + n; i < end; i++) {
+					dst[i] = (int) value;
+					value += step;
+				}
+				n += count;
+				move(count);
+			}
+			return n;
+		}
+
+		@Override
+		public int fill(IntBuffer dst)
+		{
+			int n = 0;
+			while (dst.hasRemaining() && hasNext()) {
+				int count = chunk(dst.remaining());
+				long value = next;
+				for (int i = 0; i < count; i++) {
+					dst.put((int) value);
+					value += step;
+				}
+				n += count;
+				move(count);
+			}
+			return n;
+		}
+
+		@Override
+		public Integer next()
+		{
+			return nextInt();
+		}
+
+		@Override
+		public void remove()
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		/* The number of steps left in the current segment. */
+		private long steps()
+		{
+			return (bounds[index + 1] - next) / step;
+		}
+
+		/* The number of elements left in the segment, capped to max. */
+		private int chunk(int max)
+		{
+			long steps = steps();
+			return steps < max ? (int) steps + 1 : max;
+		}
+
+		/* Moves forward by count elements of the current segment. */
+		private void move(int count)
+		{
+			if (count <= steps()) {
+				next += (long) count * step;
+			} else {
+				index += 2;
+				if (index < bounds.length) {
+					next = bounds[index];
+				}
+			}
+		}
+	}
+}
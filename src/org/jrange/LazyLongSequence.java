@@ -0,0 +1,384 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code LongSequence} driven by a {@code LongSequencer}. Like
+ * {@code LazySequence}, it computes its elements on demand, but it does so on
+ * primitive values: the first and last elements of each segment are computed
+ * once, at creation, and iterating doesn't allocate anything but the iterator.
+ *
+ * @author Osman KOCAK
+ */
+final class LazyLongSequence extends ArithmeticSequence<Long>
+	implements LongSequence
+{
+	private static final long MAX_UINT = 0xFFFFFFFFL;
+
+	/* first and last elements of the k-th segment at 2k and 2k + 1. */
+	private final long[] bounds;
+	private final long step;
+
+	/**
+	 * Creates a new {@code LazyLongSequence}.
+	 *
+	 * @param segments the segments to sequence.
+	 * @param step the step between two successive elements.
+	 */
+	LazyLongSequence(List<Segment<Long>> segments, long step)
+	{
+		this(bounds(segments, step), step);
+	}
+
+	private LazyLongSequence(long[] bounds, long step)
+	{
+		super(counts(bounds, step));
+		this.bounds = bounds;
+		this.step = step;
+	}
+
+	private static long[] bounds(List<Segment<Long>> segments, long step)
+	{
+		long[] bounds = new long[2 * segments.size()];
+		int n = 0;
+		for (Segment<Long> segment : segments) {
+			long first = segment.lowerValue();
+			if (!segment.isLowerClosed()) {
+				if (first > Long.MAX_VALUE - step) {
+					continue;
+				}
+				first += step;
+			}
+			long last = segment.upperValue();
+			if (!segment.isUpperClosed()) {
+				last--;
+			}
+			if (first <= last) {
+				bounds[n++] = first;
+				bounds[n++] = last;
+			}
+		}
+		return n == bounds.length ? bounds : Arrays.copyOf(bounds, n);
+	}
+
+	private static long[] counts(long[] bounds, long step)
+	{
+		long[] counts = new long[bounds.length / 2];
+		for (int k = 0; k < counts.length; k++) {
+			long distance = bounds[2 * k + 1] - bounds[2 * k];
+			long q = LongSequencer.steps(distance, step);
+			counts[k] = q == Long.MAX_VALUE ? q : q + 1;
+		}
+		return counts;
+	}
+
+	/* The last element of the k-th segment. */
+	private long last(int k)
+	{
+		long first = bounds[2 * k];
+		long last = bounds[2 * k + 1];
+		if (step == 1) {
+			return last;
+		}
+		return first + LongSequencer.steps(last - first, step) * step;
+	}
+
+	/*
+	 * Two LazyLongSequences are compared segment by segment: from a common
+	 * element, both sequences hold the same elements up to the end of the
+	 * shortest segment if they have the same step, so the walk below takes
+	 * a constant number of rounds per segment.
+	 */
+	@Override
+	public boolean equals(Object o)
+	{
+		if (!(o instanceof LazyLongSequence)) {
+			return super.equals(o);
+		}
+		LazyLongSequence other = (LazyLongSequence) o;
+		if (size() != other.size()) {
+			return false;
+		}
+		int n = bounds.length / 2;
+		int m = other.bounds.length / 2;
+		int i = 0;
+		int j = 0;
+		long x = n > 0 ? bounds[0] : 0;
+		long y = m > 0 ? other.bounds[0] : 0;
+		while (i < n && j < m) {
+			if (x != y) {
+				return false;
+			}
+			long u = last(i);
+			long v = other.last(j);
+			if (x != u && y != v) {
+				if (step != other.step) {
+					return false;
+				}
+				x = Math.min(u, v);
+				y = x;
+				continue;
+			}
+			if (x == u) {
+				x = ++i < n ? bounds[2 * i] : 0;
+			} else {
+				x += step;
+			}
+			if (y == v) {
+				y = ++j < m ? other.bounds[2 * j] : 0;
+			} else {
+				y += other.step;
+			}
+		}
+		return i == n && j == m;
+	}
+
+	/* The element-wise hash, computed segment by segment. */
+	@Override
+	public int hashCode()
+	{
+		int hash = 7;
+		for (int k = 0; k < bounds.length / 2; k++) {
+			hash = hash(hash, bounds[2 * k], last(k), step);
+		}
+		return hash;
+	}
+
+	/**
+	 * Folds the hash codes of the {@code Long}s of the given progression,
+	 * from {@code first} to {@code last}, into the given hash, the way
+	 * {@link AbstractSequence#hashCode()} does. The hash code of a long in
+	 * [0, 2^32[ is its low-order int, and the one of a long in [-2^32, 0[
+	 * the complement of its low-order int, so the elements in these
+	 * intervals are folded as progressions of ints. The others are folded
+	 * one by one.
+	 *
+	 * @param hash the hash to fold the elements into.
+	 * @param first the first element.
+	 * @param last the last element.
+	 * @param step the difference between two consecutive elements.
+	 *
+	 * @return the resulting hash.
+	 */
+	static int hash(int hash, long first, long last, long step)
+	{
+		long value = first;
+		while (true) {
+			int h = Long.valueOf(value).hashCode();
+			long count = 1;
+			if (value >= 0 && value <= MAX_UINT) {
+				long end = Math.min(last, MAX_UINT);
+				count = (end - value) / step + 1;
+				hash = hash(hash, h, (int) step, count);
+			} else if (value < 0 && value >= ~MAX_UINT) {
+				long end = Math.min(last, -1);
+				count = (end - value) / step + 1;
+				hash = hash(hash, h, -(int) step, count);
+			} else {
+				hash = 97 * hash + h;
+			}
+			if (LongSequencer.steps(last - value, step) < count) {
+				return hash;
+			}
+			value += count * step;
+		}
+	}
+
+	@Override
+	public Long get(long index)
+	{
+		return getLong(index);
+	}
+
+	@Override
+	public long getLong(long index)
+	{
+		int k = segmentOf(index);
+		return bounds[2 * k] + (index - offsets[k]) * step;
+	}
+
+	@Override
+	public LongSequence skip(long n)
+	{
+		if (!checkSkip(n)) {
+			return new LazyLongSequence(new long[0], step);
+		}
+		int k = segmentOf(n);
+		long[] tail = Arrays.copyOfRange(bounds, 2 * k, bounds.length);
+		tail[0] = getLong(n);
+		return new LazyLongSequence(tail, step);
+	}
+
+	@Override
+	public LongSequence limit(long n)
+	{
+		if (!checkLimit(n)) {
+			return this;
+		}
+		if (n == 0) {
+			return new LazyLongSequence(new long[0], step);
+		}
+		int k = segmentOf(n - 1);
+		long[] head = Arrays.copyOf(bounds, 2 * k + 2);
+		head[2 * k + 1] = getLong(n - 1);
+		return new LazyLongSequence(head, step);
+	}
+
+	@Override
+	public List<LongSequence> split()
+	{
+		long point = splitPoint();
+		if (point == 0) {
+			return Collections.<LongSequence>singletonList(this);
+		}
+		return Arrays.<LongSequence>asList(limit(point), skip(point));
+	}
+
+	@Override
+	public long[] toArray()
+	{
+		long[] array = new long[arraySize()];
+		iterator().fill(array, 0, array.length);
+		return array;
+	}
+
+	@Override
+	public LongIterator iterator()
+	{
+		return new SequenceIterator();
+	}
+
+	private final class SequenceIterator implements LongIterator
+	{
+		private int index;
+		private long next;
+
+		SequenceIterator()
+		{
+			if (bounds.length > 0) {
+				next = bounds[0];
+			}
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return index < bounds.length;
+		}
+
+		@Override
+		public long nextLong()
+		{
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			long current = next;
+			long last = bounds[index + 1];
+			if (last < Long.MIN_VALUE + step
+				|| current > last - step) {
+				index += 2;
+				if (index < bounds.length) {
+					next = bounds[index];
+				}
+			} else {
+				next += step;
+			}
+			return current;
+		}
+
+		@Override
+		public int fill(long[] dst, int offset, int length)
+		{
+			Parameters.checkBounds(dst.length, offset, length);
+			int n = 0;
+			while (n < length && hasNext()) {
+				int count = chunk(length - n);
+				long value = next;
+				int end = offset + n + count;
+				for (int i = offset + n; i < end; i++) {
+					dst[i] = value;
+					value += step;
+				}
+				n += count;
+				move(count);
+			}
+			return n;
+		}
+
+		@Override
+		public int fill(LongBuffer dst)
+		{
+			int n = 0;
+			while (dst.hasRemaining() && hasNext()) {
+				int count = chunk(dst.remaining());
+				long value = next;
+				for (int i = 0; i < count; i++) {
+					dst.put(value);
+					value += step;
+				}
+				n += count;
+				move(count);
+			}
+			return n;
+		}
+
+		@Override
+		public Long next()
+		{
+			return nextLong();
+		}
+
+		@Override
+		public void remove()
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		/* The number of steps left in the current segment. */
+		private long steps()
+		{
+			long distance = bounds[index + 1] - next;
+			return LongSequencer.steps(distance, step);
+		}
+
+		/* The number of elements left in the segment, capped to max. */
+		private int chunk(int max)
+		{
+			long steps = steps();
+			return steps < max ? (int) steps + 1 : max;
+		}
+
+		/* Moves forward by count elements of the current segment. */
+		private void move(int count)
+		{
+			if (count <= steps()) {
+				next += count * step;
+			} else {
+				index += 2;
+				if (index < bounds.length) {
+					next = bounds[index];
+				}
+			}
+		}
+	}
+}
@@ -16,7 +16,10 @@
 
 package org.jrange;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -24,14 +27,17 @@ import java.util.NoSuchElementException;
 /**
  * {@code Sequence} interface's default implementation. This implementation
  * is "lazy", it computes its elements on demand and doesn't keep a reference
- * on them.
+ * on them. Random access relies on the sequencer's {@code advance} and
+ * {@code distance} methods (see {@link AbstractSequencer}): the first element
+ * and the number of elements of each segment are computed the first time they
+ * are needed.
  *
  * @param <E> the type of the elements in this sequence.
  *
  * @author Osman KOCAK
  */
 final class LazySequence<E extends Comparable<? super E>>
-	extends AbstractSequence<E>
+	extends AbstractSequence<E> implements IndexedSequence<E>
 {
 	private static final Iterator EMPTY_SEQUENCE_ITERATOR;
 	static {
@@ -40,6 +46,7 @@ final class LazySequence<E extends Comparable<? super E>>
 
 	private final List<Segment<E>> segments;
 	private final Sequencer<E> sequencer;
+	private Index<E> index;
 
 	/**
 	 * Creates a new {@code LazySequence}.
@@ -57,6 +64,250 @@ final class LazySequence<E extends Comparable<? super E>>
 		this.sequencer = sequencer;
 	}
 
+	@Override
+	public long size()
+	{
+		Index<E> idx = index();
+		return idx.offsets[idx.offsets.length - 1];
+	}
+
+	@Override
+	public E get(long index)
+	{
+		Index<E> idx = index();
+		int k = ArithmeticSequence.segmentOf(idx.offsets, index);
+		return idx.sequencer.advance(idx.firsts[k],
+			index - idx.offsets[k]);
+	}
+
+	@Override
+	public LazySequence<E> skip(long n)
+	{
+		Parameters.checkCondition(n >= 0, "n must be >= 0");
+		Index<E> idx = index();
+		if (n >= size()) {
+			List<Segment<E>> empty = Collections.emptyList();
+			return new LazySequence<E>(empty, sequencer);
+		}
+		int k = ArithmeticSequence.segmentOf(idx.offsets, n);
+		Segment<E> segment = segments.get(idx.segments[k]);
+		List<Segment<E>> tail = new ArrayList<Segment<E>>();
+		tail.add(new Segment<E>(get(n), true, segment.upperValue(),
+			segment.isUpperClosed()));
+		tail.addAll(segments.subList(idx.segments[k] + 1,
+			segments.size()));
+		return new LazySequence<E>(tail, sequencer);
+	}
+
+	@Override
+	public LazySequence<E> limit(long n)
+	{
+		Parameters.checkCondition(n >= 0, "n must be >= 0");
+		Index<E> idx = index();
+		if (n >= size()) {
+			return this;
+		}
+		if (n == 0) {
+			List<Segment<E>> empty = Collections.emptyList();
+			return new LazySequence<E>(empty, sequencer);
+		}
+		int k = ArithmeticSequence.segmentOf(idx.offsets, n - 1);
+		Segment<E> segment = segments.get(idx.segments[k]);
+		List<Segment<E>> head = new ArrayList<Segment<E>>();
+		head.addAll(segments.subList(0, idx.segments[k]));
+		head.add(new Segment<E>(segment.lowerValue(),
+			segment.isLowerClosed(), get(n - 1), true));
+		return new LazySequence<E>(head, sequencer);
+	}
+
+	@Override
+	public List<LazySequence<E>> split()
+	{
+		long point = ArithmeticSequence.splitPoint(index().offsets);
+		if (point == 0) {
+			return Collections.singletonList(this);
+		}
+		return Arrays.asList(limit(point), skip(point));
+	}
+
+	/*
+	 * With the same sequencer, two sequences holding a common element hold
+	 * the same elements up to the end of the shortest of their current
+	 * segments, so they are compared in a constant number of rounds per
+	 * segment, each one advancing the sequencer once.
+	 */
+	@Override
+	public boolean equals(Object o)
+	{
+		if (!(o instanceof LazySequence) || o == this) {
+			return super.equals(o);
+		}
+		LazySequence<E> other = (LazySequence<E>) o;
+		if (!sequencer.equals(other.sequencer)) {
+			return super.equals(o);
+		}
+		if (segments.equals(other.segments)) {
+			return true;
+		}
+		long left = size();
+		if (left != other.size()) {
+			return false;
+		}
+		if (left == Long.MAX_VALUE) {
+			return super.equals(o);
+		}
+		Index<E> a = index();
+		Index<E> b = other.index();
+		int i = 0;
+		int j = 0;
+		long p = 0;
+		long q = 0;
+		E x = null;
+		E y = null;
+		while (left > 0) {
+			if (p == 0) {
+				x = a.firsts[i];
+				p = a.offsets[i + 1] - a.offsets[i];
+				i++;
+			}
+			if (q == 0) {
+				y = b.firsts[j];
+				q = b.offsets[j + 1] - b.offsets[j];
+				j++;
+			}
+			if (!x.equals(y)) {
+				return false;
+			}
+			long d = Math.min(p, q);
+			left -= d;
+			p -= d;
+			q -= d;
+			if (p > 0) {
+				x = a.sequencer.advance(x, d);
+			}
+			if (q > 0) {
+				y = b.sequencer.advance(y, d);
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * The element-wise hash. With the library's int, long and date
+	 * sequencers, the elements following the first one of a segment form
+	 * a progression of longs whose hash codes are folded in closed form.
+	 */
+	@Override
+	public int hashCode()
+	{
+		long step = step(sequencer);
+		if (step == 0 || size() == Long.MAX_VALUE) {
+			return super.hashCode();
+		}
+		Index<E> idx = index();
+		int hash = 7;
+		for (int k = 0; k < idx.firsts.length; k++) {
+			E first = idx.firsts[k];
+			hash = 97 * hash + first.hashCode();
+			long n = idx.offsets[k + 1] - idx.offsets[k] - 1;
+			if (n == 0) {
+				continue;
+			}
+			long value = first instanceof Date
+				? ((Date) first).getTime()
+				: ((Number) first).longValue();
+			if (sequencer instanceof IntegerSequencer) {
+				int next = (int) (value + step);
+				hash = ArithmeticSequence.hash(hash, next,
+					(int) step, n);
+			} else {
+				hash = LazyLongSequence.hash(hash, value + step,
+					value + n * step, step);
+			}
+		}
+		return hash;
+	}
+
+	private static long step(Sequencer<?> sequencer)
+	{
+		if (sequencer instanceof IntegerSequencer) {
+			return ((IntegerSequencer) sequencer).step();
+		}
+		if (sequencer instanceof LongSequencer) {
+			return ((LongSequencer) sequencer).step();
+		}
+		if (sequencer instanceof DateSequencer) {
+			return ((DateSequencer) sequencer).step();
+		}
+		return 0;
+	}
+
+	/* Racy single-check idiom, Index being immutable. */
+	private Index<E> index()
+	{
+		Index<E> idx = index;
+		if (idx == null) {
+			idx = new Index<E>(segments, sequencer);
+			index = idx;
+		}
+		return idx;
+	}
+
+	/**
+	 * The first element and the offset of each non-empty segment.
+	 */
+	private static final class Index<E extends Comparable<? super E>>
+	{
+		final AbstractSequencer<E> sequencer;
+		final int[] segments;
+		final E[] firsts;
+		final long[] offsets;
+
+		Index(List<Segment<E>> segments, Sequencer<E> sequencer)
+		{
+			this.sequencer = AbstractSequencer.wrap(sequencer);
+			int n = segments.size();
+			int[] indexes = new int[n];
+			E[] firsts = (E[]) new Comparable[n];
+			long[] counts = new long[n];
+			int k = 0;
+			for (int i = 0; i < n; i++) {
+				Segment<E> segment = segments.get(i);
+				E first = segment.lowerValue();
+				if (!segment.isLowerClosed()) {
+					first = sequencer.next(first);
+				}
+				long count = count(segment, first);
+				if (count > 0) {
+					indexes[k] = i;
+					firsts[k] = first;
+					counts[k] = count;
+					k++;
+				}
+			}
+			this.segments = Arrays.copyOf(indexes, k);
+			this.firsts = Arrays.copyOf(firsts, k);
+			this.offsets = ArithmeticSequence.offsets(
+				Arrays.copyOf(counts, k));
+		}
+
+		private long count(Segment<E> segment, E first)
+		{
+			if (!segment.contains(first)) {
+				return 0;
+			}
+			E upper = segment.upperValue();
+			long d = sequencer.distance(first, upper);
+			if (!segment.isUpperClosed()) {
+				E last = sequencer.advance(first, d);
+				if (last.compareTo(upper) == 0) {
+					return d;
+				}
+			}
+			return d == Long.MAX_VALUE ? d : d + 1;
+		}
+	}
+
 	@Override
 	public Iterator<E> iterator()
 	{
@@ -66,51 +317,38 @@ final class LazySequence<E extends Comparable<? super E>>
 		return new SequenceIterator();
 	}
 
+	/*
+	 * A cursor over the segments, holding the next element to return: each
+	 * candidate is computed and checked exactly once, when the previous
+	 * element is returned, and segments yielding no element are skipped
+	 * in a loop.
+	 */
 	private final class SequenceIterator implements Iterator<E>
 	{
-		private Segment<E> segment;
-		private E current;
 		private int index;
+		private Segment<E> segment;
+		private E next;
 
 		SequenceIterator()
 		{
-			segment = segments.get(0);
+			next = seek();
 		}
 
 		@Override
 		public boolean hasNext()
 		{
-			if (index < segments.size() - 1) {
-				return true;
-			}
-			if (current != null) {
-				E next = sequencer.next(current);
-				return segment.contains(next);
-			}
-			E next = segment.lowerBound().value();
-			return segment.contains(next)
-				|| segment.contains(sequencer.next(next));
+			return next != null;
 		}
 
 		@Override
 		public E next()
 		{
-			if (!hasNext()) {
+			if (next == null) {
 				throw new NoSuchElementException();
 			}
-			if (current == null) {
-				current = segment.lowerBound().value();
-				if (!segment.contains(current)) {
-					return next();
-				}
-			} else {
-				current = sequencer.next(current);
-				if (!segment.contains(current)) {
-					segment = segments.get(++index);
-					current = null;
-					return next();
-				}
-			}
+			E current = next;
+			E candidate = sequencer.next(current);
+			next = segment.contains(candidate) ? candidate : seek();
 			return current;
 		}
 
@@ -119,6 +357,21 @@ final class LazySequence<E extends Comparable<? super E>>
 		{
 			throw new UnsupportedOperationException();
 		}
+
+		private E seek()
+		{
+			while (index < segments.size()) {
+				segment = segments.get(index++);
+				E first = segment.lowerValue();
+				if (!segment.isLowerClosed()) {
+					first = sequencer.next(first);
+				}
+				if (segment.contains(first)) {
+					return first;
+				}
+			}
+			return null;
+		}
 	}
 
 	private static final class EmptySequenceIterator<E>
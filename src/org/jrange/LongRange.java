@@ -0,0 +1,233 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An immutable range of {@code long}s. {@code LongRange}s provide the same
+ * algebra as {@code Range}s, but store their bounds in a {@code long[]} (and
+ * their closedness in a {@code BitSet}) so that no boxing occurs, neither in
+ * memory nor when testing whether a value is contained.
+ *
+ * @author Osman KOCAK
+ */
+public final class LongRange
+	extends PrimitiveRange<LongRange, Long>
+{
+	private static final LongRange EMPTY = new LongRange(new long[0],
+		new BitSet());
+
+	/**
+	 * Returns the empty {@code LongRange}.
+	 *
+	 * @return the empty {@code LongRange}.
+	 */
+	public static LongRange empty()
+	{
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the closed interval {@code [lower, upper]}.
+	 *
+	 * @param lower the interval's lower bound.
+	 * @param upper the interval's upper bound.
+	 *
+	 * @return the closed interval {@code [lower, upper]}.
+	 */
+	public static LongRange closed(long lower, long upper)
+	{
+		return interval(lower, true, upper, true);
+	}
+
+	/**
+	 * Returns the opened interval {@code ]lower, upper[}.
+	 *
+	 * @param lower the interval's lower bound.
+	 * @param upper the interval's upper bound.
+	 *
+	 * @return the opened interval {@code ]lower, upper[}.
+	 */
+	public static LongRange opened(long lower, long upper)
+	{
+		return interval(lower, false, upper, false);
+	}
+
+	/**
+	 * Returns the interval defined by the given bounds. Note that if the
+	 * upper bound is lower than the lower bound, or, if the bounds' values
+	 * are equal and at least one of them is opened, the returned interval
+	 * will be empty.
+	 *
+	 * @param lower the interval's lower bound.
+	 * @param lowerClosed whether the lower bound is closed.
+	 * @param upper the interval's upper bound.
+	 * @param upperClosed whether the upper bound is closed.
+	 *
+	 * @return the interval defined by the given bounds.
+	 */
+	public static LongRange interval(long lower, boolean lowerClosed,
+		long upper, boolean upperClosed)
+	{
+		if (lower > upper
+			|| lower == upper && !(lowerClosed && upperClosed)) {
+			return EMPTY;
+		}
+		BitSet closed = new BitSet(2);
+		closed.set(0, lowerClosed);
+		closed.set(1, upperClosed);
+		return new LongRange(new long[] {lower, upper}, closed);
+	}
+
+	/**
+	 * Returns the {@code LongRange} equal to the given {@code Range}.
+	 *
+	 * @param range the range to convert.
+	 *
+	 * @return the {@code LongRange} equal to the given range.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public static LongRange valueOf(Range<Long> range)
+	{
+		return convert(range, EMPTY);
+	}
+
+	private final long[] values;
+
+	private LongRange(long[] values, BitSet closed)
+	{
+		super(closed, values.length);
+		this.values = values;
+	}
+
+	/**
+	 * Returns whether this range contains the given value.
+	 *
+	 * @param value the value to test.
+	 *
+	 * @return whether this range contains the given value.
+	 */
+	public boolean contains(long value)
+	{
+		int low = 0;
+		int high = size / 2 - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int i = 2 * mid;
+			long lower = values[i];
+			long upper = values[i + 1];
+			if (value < lower || value == lower && !closed.get(i)) {
+				high = mid - 1;
+			} else if (value > upper
+				|| value == upper && !closed.get(i + 1)) {
+				low = mid + 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the sequence of the values contained in this range, as
+	 * generated by the given sequencer. The returned sequence can be
+	 * iterated over without boxing its elements.
+	 *
+	 * @param sequencer the sequencer to use.
+	 *
+	 * @return the sequence of the values of this range.
+	 *
+	 * @throws NullPointerException if {@code sequencer} is {@code null}.
+	 */
+	public LongSequence sequence(LongSequencer sequencer)
+	{
+		Parameters.checkNotNull(sequencer);
+		return new LazyLongSequence(segments(), sequencer.step());
+	}
+
+	@Override
+	int compareValues(int i, LongRange other, int j)
+	{
+		long a = values[i];
+		long b = other.values[j];
+		return a < b ? -1 : (a == b ? 0 : 1);
+	}
+
+	@Override
+	Long value(int i)
+	{
+		return values[i];
+	}
+
+	@Override
+	int hashValues()
+	{
+		return Arrays.hashCode(values);
+	}
+
+	@Override
+	PrimitiveRange.Builder<LongRange, Long> newBuilder(int capacity)
+	{
+		return new Builder(capacity);
+	}
+
+	private static final class Builder
+		extends PrimitiveRange.Builder<LongRange, Long>
+	{
+		private final long[] values;
+		private final BitSet closed;
+		private int size;
+
+		Builder(int capacity)
+		{
+			this.values = new long[capacity];
+			this.closed = new BitSet(capacity);
+		}
+
+		@Override
+		void add(LongRange source, int index, boolean closed)
+		{
+			add(source.values[index], closed);
+		}
+
+		@Override
+		void add(Segment<Long> segment)
+		{
+			add(segment.lowerValue(), segment.isLowerClosed());
+			add(segment.upperValue(), segment.isUpperClosed());
+		}
+
+		void add(long value, boolean closed)
+		{
+			this.closed.set(size, closed);
+			values[size++] = value;
+		}
+
+		@Override
+		LongRange build()
+		{
+			if (size == 0) {
+				return EMPTY;
+			}
+			long[] bounds = Arrays.copyOf(values, size);
+			return new LongRange(bounds, closed);
+		}
+	}
+}
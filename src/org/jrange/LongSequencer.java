@@ -21,7 +21,7 @@ package org.jrange;
  *
  * @author Osman KOCAK
  */
-public final class LongSequencer implements Sequencer<Long>
+public final class LongSequencer extends AbstractSequencer<Long>
 {
 	private final long step;
 
@@ -38,12 +38,60 @@ public final class LongSequencer implements Sequencer<Long>
 		this.step = step;
 	}
 
+	/**
+	 * Returns the step between two successive values.
+	 *
+	 * @return the step between two successive values.
+	 */
+	long step()
+	{
+		return step;
+	}
+
 	@Override
 	public Long next(Long current)
 	{
 		return current + step;
 	}
 
+	@Override
+	public Long advance(Long current, long n)
+	{
+		Parameters.checkCondition(n >= 0, "n must be >= 0");
+		return current + n * step;
+	}
+
+	@Override
+	public long distance(Long from, Long to)
+	{
+		Parameters.checkCondition(from <= to, "from must be <= to");
+		return steps(to - from, step);
+	}
+
+	/**
+	 * Returns the number of steps of the given length that fit in the
+	 * given distance, capped to {@code Long.MAX_VALUE}. The distance is
+	 * read as an unsigned value, as the one between two {@code long}s may
+	 * exceed {@code Long.MAX_VALUE}.
+	 *
+	 * @param distance the distance, as an unsigned value.
+	 * @param step the length of a step, must be positive.
+	 *
+	 * @return {@code distance / step}, capped to {@code Long.MAX_VALUE}.
+	 */
+	static long steps(long distance, long step)
+	{
+		if (distance >= 0) {
+			return distance / step;
+		}
+		long q = ((distance >>> 1) / step) << 1;
+		long r = distance - q * step;
+		if (r + Long.MIN_VALUE >= step + Long.MIN_VALUE) {
+			q++;
+		}
+		return q < 0 ? Long.MAX_VALUE : q;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -97,6 +97,25 @@ final class Parameters
 		}
 	}
 
+	/**
+	 * Checks that the given range of indexes lies within an array of the
+	 * given length.
+	 *
+	 * @param size the length of the array.
+	 * @param offset the first index of the range.
+	 * @param length the length of the range.
+	 *
+	 * @throws IndexOutOfBoundsException if {@code offset < 0}, if
+	 *	{@code length < 0} or if {@code offset + length > size}.
+	 */
+	static void checkBounds(int size, int offset, int length)
+	{
+		if (offset < 0 || length < 0 || offset > size - length) {
+			throw new IndexOutOfBoundsException("Offset: " + offset
+				+ ", Length: " + length + ", Size: " + size);
+		}
+	}
+
 	/**
 	 * Checks the type of the given reference and, in case of success, casts
 	 * and returns it.
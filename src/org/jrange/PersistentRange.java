@@ -0,0 +1,550 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+
+package org.jrange;
+
+import static org.jrange.SimpleInterval.from;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.jrange.Segment.Relation;
+
+/**
+ * A persistent implementation of the {@code Range} interface. The canonical
+ * segments of the range are stored in an immutable balanced (AVL) tree; the
+ * ranges derived from a {@code PersistentRange} by a union or a subtraction
+ * only copy the paths of the tree leading to the segments they change, and
+ * share all the other nodes with the original range. Deriving such a range
+ * with a small argument, of {@code k} segments, thus costs
+ * {@code O(k log(n))} time and memory instead of a full copy, where {@code n}
+ * is the number of segments of this range. An intersection only keeps the
+ * segments overlapping its argument: it builds a new tree out of them, in
+ * {@code O(k log(n) + r)} time, where {@code r} is the number of segments of
+ * the result.
+ *
+ * @param <E> the type of the elements in this range.
+ *
+ * @author Osman KOCAK
+ */
+public final class PersistentRange<E extends Comparable<? super E>>
+	extends AbstractRange<E>
+{
+	private static final PersistentRange<?> EMPTY;
+	static {
+		EMPTY = new PersistentRange<Integer>(null);
+	}
+
+	/**
+	 * Returns the empty {@code PersistentRange}.
+	 *
+	 * @param <E> the type of the elements in the range.
+	 *
+	 * @return the empty {@code PersistentRange}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E extends Comparable<? super E>>
+		PersistentRange<E> empty()
+	{
+		/* Holding no element, the empty range fits any element type. */
+		return (PersistentRange<E>) EMPTY;
+	}
+
+	/**
+	 * Returns a {@code PersistentRange} holding the same values as the
+	 * given range, built in linear time.
+	 *
+	 * @param <E> the type of the elements in the range.
+	 * @param range the range to convert.
+	 *
+	 * @return the converted range.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public static <E extends Comparable<? super E>>
+		PersistentRange<E> valueOf(Range<E> range)
+	{
+		if (range instanceof PersistentRange) {
+			return (PersistentRange<E>) range;
+		}
+		return create(Segments.split(range));
+	}
+
+	private static <E extends Comparable<? super E>>
+		PersistentRange<E> create(List<Segment<E>> segments)
+	{
+		if (segments.isEmpty()) {
+			return empty();
+		}
+		return new PersistentRange<E>(
+			Node.build(segments, 0, segments.size()));
+	}
+
+	private final Node<E> root;
+	private int hash;
+
+	private PersistentRange(Node<E> root)
+	{
+		this.root = root;
+	}
+
+	/**
+	 * Returns the canonical segments of this range, as a view backed by
+	 * its tree: no copy is made, accessing a segment by index costs
+	 * {@code O(log(n))} and iterating over all of them {@code O(n)}.
+	 *
+	 * @return this range's segments as an unmodifiable {@code List}.
+	 */
+	List<Segment<E>> segments()
+	{
+		return new SegmentList<E>(root);
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return root == null;
+	}
+
+	@Override
+	public boolean contains(E value)
+	{
+		Parameters.checkNotNull(value);
+		Node<E> node = root;
+		while (node != null) {
+			int cmp = node.segment.locate(value);
+			if (cmp == 0) {
+				return true;
+			}
+			node = cmp < 0 ? node.left : node.right;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean includes(Range<? extends E> range)
+	{
+		for (Segment<E> segment : Segments.split(range)) {
+			List<Segment<E>> found = new ArrayList<Segment<E>>(1);
+			Node.search(root, segment, false, found);
+			if (found.size() != 1) {
+				return false;
+			}
+			if (!found.get(0).includes(segment)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean intersects(Range<? extends E> range)
+	{
+		Parameters.checkNotNull(range);
+		for (Segment<E> segment : Segments.split(range)) {
+			Node<E> node = root;
+			while (node != null) {
+				Relation relation;
+				relation = node.segment.relate(segment);
+				if (relation.intersects) {
+					return true;
+				}
+				node = relation == Relation.BEFORE
+					|| relation == Relation.MEETS
+					? node.right : node.left;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public PersistentRange<E> intersection(Range<? extends E> range)
+	{
+		List<Segment<E>> res = new ArrayList<Segment<E>>();
+		for (Segment<E> segment : Segments.split(range)) {
+			List<Segment<E>> found = new ArrayList<Segment<E>>();
+			Node.search(root, segment, false, found);
+			for (Segment<E> s : found) {
+				res.add(s.intersection(segment));
+			}
+		}
+		return create(res);
+	}
+
+	@Override
+	public PersistentRange<E> union(Range<? extends E> range)
+	{
+		Node<E> node = root;
+		for (Segment<E> segment : Segments.split(range)) {
+			List<Segment<E>> found = new ArrayList<Segment<E>>();
+			Node.search(node, segment, true, found);
+			Segment<E> merged = segment;
+			for (Segment<E> s : found) {
+				merged = merged.span(s);
+			}
+			if (found.size() == 1
+				&& found.get(0).includes(segment)) {
+				continue;
+			}
+			for (Segment<E> s : found) {
+				node = Node.remove(node, s);
+			}
+			node = Node.insert(node, merged);
+		}
+		return node == root ? this : new PersistentRange<E>(node);
+	}
+
+	@Override
+	public PersistentRange<E> subtraction(Range<? extends E> range)
+	{
+		Node<E> node = root;
+		for (Segment<E> segment : Segments.split(range)) {
+			List<Segment<E>> found = new ArrayList<Segment<E>>();
+			Node.search(node, segment, false, found);
+			for (Segment<E> s : found) {
+				node = Node.remove(node, s);
+				List<Segment<E>> pieces;
+				pieces = s.subtraction(segment);
+				for (Segment<E> piece : pieces) {
+					node = Node.insert(node, piece);
+				}
+			}
+		}
+		if (node == root) {
+			return this;
+		}
+		return node == null ? PersistentRange.<E>empty()
+			: new PersistentRange<E>(node);
+	}
+
+	@Override
+	public List<Interval<E>> split()
+	{
+		List<Interval<E>> intervals = new ArrayList<Interval<E>>();
+		if (isEmpty()) {
+			intervals.add((Interval<E>) Ranges.EMPTY_RANGE);
+		} else {
+			for (Segment<E> segment : segments()) {
+				Bound<E> lower = segment.lowerBound();
+				Bound<E> upper = segment.upperBound();
+				intervals.add(from(lower).to(upper));
+			}
+		}
+		return Collections.unmodifiableList(intervals);
+	}
+
+	@Override
+	public Sequence<E> sequence(Sequencer<E> sequencer)
+	{
+		List<Segment<E>> segments;
+		segments = new ArrayList<Segment<E>>(segments());
+		return new LazySequence<E>(segments, sequencer);
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof Range)) {
+			return false;
+		}
+		if (o instanceof PersistentRange) {
+			PersistentRange<?> range = (PersistentRange<?>) o;
+			if (hash != 0 && range.hash != 0
+				&& hash != range.hash) {
+				return false;
+			}
+		}
+		List<Segment<E>> segments = Segments.split((Range<E>) o);
+		if (segments.size() != Node.size(root)) {
+			return false;
+		}
+		Iterator<Segment<E>> i = segments.iterator();
+		for (Segment<E> segment : segments()) {
+			if (!segment.equals(i.next())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int h = hash;
+		if (h == 0) {
+			h = super.hashCode();
+			hash = h;
+		}
+		return h;
+	}
+
+	/*
+	 * The segments of a tree, in order. Indexed accesses select the segment
+	 * from the subtrees' sizes, iterations walk the tree.
+	 */
+	private static final class SegmentList<E extends Comparable<? super E>>
+		extends AbstractList<Segment<E>>
+	{
+		private final Node<E> root;
+
+		SegmentList(Node<E> root)
+		{
+			this.root = root;
+		}
+
+		@Override
+		public Segment<E> get(int index)
+		{
+			if (index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException(
+					String.valueOf(index));
+			}
+			Node<E> node = root;
+			int i = index;
+			while (true) {
+				int left = Node.size(node.left);
+				if (i == left) {
+					return node.segment;
+				}
+				if (i < left) {
+					node = node.left;
+				} else {
+					i -= left + 1;
+					node = node.right;
+				}
+			}
+		}
+
+		@Override
+		public int size()
+		{
+			return Node.size(root);
+		}
+
+		@Override
+		public Iterator<Segment<E>> iterator()
+		{
+			return new SegmentIterator<E>(root);
+		}
+	}
+
+	/* An in-order walk of a tree, holding the path to the next node. */
+	private static final class SegmentIterator<
+		E extends Comparable<? super E>> implements Iterator<Segment<E>>
+	{
+		private final Deque<Node<E>> path;
+
+		SegmentIterator(Node<E> root)
+		{
+			this.path = new ArrayDeque<Node<E>>();
+			descend(root);
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return !path.isEmpty();
+		}
+
+		@Override
+		public Segment<E> next()
+		{
+			if (path.isEmpty()) {
+				throw new NoSuchElementException();
+			}
+			Node<E> node = path.pop();
+			descend(node.right);
+			return node.segment;
+		}
+
+		@Override
+		public void remove()
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		private void descend(Node<E> node)
+		{
+			for (Node<E> n = node; n != null; n = n.left) {
+				path.push(n);
+			}
+		}
+	}
+
+	/*
+	 * An immutable AVL tree node, segments being ordered by lower bound
+	 * (they are disjoint). Updates return a new tree sharing the nodes off
+	 * the updated path with the original one.
+	 */
+	private static final class Node<E extends Comparable<? super E>>
+	{
+		static <E extends Comparable<? super E>> Node<E> build(
+			List<Segment<E>> segments, int from, int to)
+		{
+			if (from == to) {
+				return null;
+			}
+			int mid = (from + to) >>> 1;
+			return new Node<E>(segments.get(mid),
+				build(segments, from, mid),
+				build(segments, mid + 1, to));
+		}
+
+		/*
+		 * Collects, in order, the segments intersecting the given one
+		 * and, if touching is true, the ones meeting it.
+		 */
+		static <E extends Comparable<? super E>> void search(
+			Node<E> node, Segment<E> segment, boolean touching,
+			List<Segment<E>> found)
+		{
+			if (node == null) {
+				return;
+			}
+			Relation relation = node.segment.relate(segment);
+			boolean before = relation == Relation.BEFORE
+				|| relation == Relation.MEETS && !touching;
+			boolean after = relation == Relation.AFTER
+				|| relation == Relation.MET && !touching;
+			if (!before) {
+				search(node.left, segment, touching, found);
+			}
+			if (!before && !after) {
+				found.add(node.segment);
+			}
+			if (!after) {
+				search(node.right, segment, touching, found);
+			}
+		}
+
+		static <E extends Comparable<? super E>> Node<E> insert(
+			Node<E> node, Segment<E> segment)
+		{
+			if (node == null) {
+				return new Node<E>(segment, null, null);
+			}
+			if (segment.compareLowerBoundTo(node.segment) < 0) {
+				return balance(node.segment,
+					insert(node.left, segment), node.right);
+			}
+			return balance(node.segment, node.left,
+				insert(node.right, segment));
+		}
+
+		static <E extends Comparable<? super E>> Node<E> remove(
+			Node<E> node, Segment<E> segment)
+		{
+			int cmp = segment.compareLowerBoundTo(node.segment);
+			if (cmp < 0) {
+				return balance(node.segment,
+					remove(node.left, segment), node.right);
+			}
+			if (cmp > 0) {
+				return balance(node.segment, node.left,
+					remove(node.right, segment));
+			}
+			if (node.left == null) {
+				return node.right;
+			}
+			if (node.right == null) {
+				return node.left;
+			}
+			Node<E> min = node.right;
+			while (min.left != null) {
+				min = min.left;
+			}
+			return balance(min.segment, node.left,
+				removeMin(node.right));
+		}
+
+		private static <E extends Comparable<? super E>> Node<E>
+			removeMin(Node<E> node)
+		{
+			if (node.left == null) {
+				return node.right;
+			}
+			return balance(node.segment, removeMin(node.left),
+				node.right);
+		}
+
+		private static <E extends Comparable<? super E>> Node<E>
+			balance(Segment<E> segment, Node<E> left, Node<E> right)
+		{
+			int hl = height(left);
+			int hr = height(right);
+			if (hl > hr + 1) {
+				if (height(left.left) >= height(left.right)) {
+					return new Node<E>(left.segment,
+						left.left, new Node<E>(segment,
+						left.right, right));
+				}
+				Node<E> pivot = left.right;
+				return new Node<E>(pivot.segment,
+					new Node<E>(left.segment, left.left,
+					pivot.left), new Node<E>(segment,
+					pivot.right, right));
+			}
+			if (hr > hl + 1) {
+				if (height(right.right) >= height(right.left)) {
+					return new Node<E>(right.segment,
+						new Node<E>(segment, left,
+						right.left), right.right);
+				}
+				Node<E> pivot = right.left;
+				return new Node<E>(pivot.segment,
+					new Node<E>(segment, left, pivot.left),
+					new Node<E>(right.segment, pivot.right,
+					right.right));
+			}
+			return new Node<E>(segment, left, right);
+		}
+
+		private static int height(Node<?> node)
+		{
+			return node == null ? 0 : node.height;
+		}
+
+		static int size(Node<?> node)
+		{
+			return node == null ? 0 : node.size;
+		}
+
+		final Segment<E> segment;
+		final Node<E> left;
+		final Node<E> right;
+		final int height;
+		final int size;
+
+		private Node(Segment<E> segment, Node<E> left, Node<E> right)
+		{
+			this.segment = segment;
+			this.left = left;
+			this.right = right;
+			this.height = Math.max(height(left), height(right)) + 1;
+			this.size = size(left) + size(right) + 1;
+		}
+	}
+}
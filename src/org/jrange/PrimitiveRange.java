@@ -0,0 +1,490 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Skeletal implementation shared by the ranges of primitive values. Such a
+ * range stores the bounds of its canonical segments (sorted, disjoint and
+ * non-empty) in a primitive array, the lower and upper bounds of the k-th
+ * segment being at indexes {@code 2k} and {@code 2k + 1}, along with a
+ * {@code BitSet} telling which of these bounds are closed. Set operations
+ * are computed by sweeping the bounds of both operands in a single pass.
+ * Subclasses only hold the typed storage of the values: the algebra, the
+ * conversions from and to {@code Range}s and the object methods are shared.
+ *
+ * @param <R> the concrete type of the range.
+ * @param <E> the boxed type of the values.
+ *
+ * @author Osman KOCAK
+ */
+abstract class PrimitiveRange<R extends PrimitiveRange<R, E>,
+	E extends Comparable<? super E>>
+{
+	private static final String EMPTY_SET_CHARACTER;
+	static {
+		EMPTY_SET_CHARACTER = Character.toString((char) 8709);
+	}
+
+	/** The set operations that can be computed by a sweep. */
+	static enum Operation
+	{
+		/** Union. */
+		UNION {
+			@Override
+			boolean apply(boolean a, boolean b)
+			{
+				return a || b;
+			}
+		},
+		/** Intersection. */
+		INTERSECTION {
+			@Override
+			boolean apply(boolean a, boolean b)
+			{
+				return a && b;
+			}
+		},
+		/** Subtraction. */
+		SUBTRACTION {
+			@Override
+			boolean apply(boolean a, boolean b)
+			{
+				return a && !b;
+			}
+		};
+
+		abstract boolean apply(boolean a, boolean b);
+	}
+
+	/**
+	 * Accumulates bounds, in increasing order, to build a new range.
+	 *
+	 * @param <R> the type of the range to build.
+	 * @param <E> the boxed type of the values.
+	 */
+	abstract static class Builder<R, E extends Comparable<? super E>>
+	{
+		/**
+		 * Appends a bound whose value is the one of the given range's
+		 * bound at the given index.
+		 *
+		 * @param source the range holding the bound's value.
+		 * @param index the index of the value in the given range.
+		 * @param closed whether the appended bound is closed.
+		 */
+		abstract void add(R source, int index, boolean closed);
+
+		/**
+		 * Appends the bounds of the given canonical segment, which
+		 * follows the last appended one.
+		 *
+		 * @param segment the segment to append.
+		 */
+		abstract void add(Segment<E> segment);
+
+		/**
+		 * Returns the built range.
+		 *
+		 * @return the built range.
+		 */
+		abstract R build();
+	}
+
+	/**
+	 * Returns the range of the given type equal to the given
+	 * {@code Range}.
+	 *
+	 * @param <R> the type of the range to return.
+	 * @param <E> the boxed type of the values.
+	 * @param range the range to convert.
+	 * @param empty the empty range of the type to return.
+	 *
+	 * @return the range equal to the given one.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	static <R extends PrimitiveRange<R, E>, E extends Comparable<? super E>>
+		R convert(Range<E> range, R empty)
+	{
+		List<Segment<E>> segments = Segments.split(range);
+		Builder<R, E> builder = empty.newBuilder(2 * segments.size());
+		for (Segment<E> segment : segments) {
+			builder.add(segment);
+		}
+		return builder.build();
+	}
+
+	/** Closedness of the bounds, bit i is set if bound i is closed. */
+	final BitSet closed;
+
+	/** The number of bounds (twice the number of segments). */
+	final int size;
+
+	/**
+	 * Creates a new {@code PrimitiveRange}.
+	 *
+	 * @param closed the closedness of the bounds.
+	 * @param size the number of bounds.
+	 */
+	PrimitiveRange(BitSet closed, int size)
+	{
+		this.closed = closed;
+		this.size = size;
+	}
+
+	/**
+	 * Compares the value of this range's bound at index {@code i} with the
+	 * value of the given range's bound at index {@code j}.
+	 *
+	 * @param i the index of the bound in this range.
+	 * @param other the other range.
+	 * @param j the index of the bound in the other range.
+	 *
+	 * @return a negative integer, zero, or a positive integer as the first
+	 *	value is less than, equal to, or greater than the second.
+	 */
+	abstract int compareValues(int i, R other, int j);
+
+	/**
+	 * Returns the value of the bound at the given index.
+	 *
+	 * @param i the index of the bound.
+	 *
+	 * @return the boxed value of the bound.
+	 */
+	abstract E value(int i);
+
+	/**
+	 * Returns a hash code for the values of the bounds.
+	 *
+	 * @return the hash code of the values.
+	 */
+	abstract int hashValues();
+
+	/**
+	 * Returns a new builder able to hold the given number of bounds.
+	 *
+	 * @param capacity the maximum number of bounds.
+	 *
+	 * @return a new builder.
+	 */
+	abstract Builder<R, E> newBuilder(int capacity);
+
+	/**
+	 * Computes the given set operation between this range and the given
+	 * one.
+	 *
+	 * @param other the other operand.
+	 * @param operation the operation to compute.
+	 *
+	 * @return the result of the operation.
+	 */
+	final R combine(R other, Operation operation)
+	{
+		Builder<R, E> builder = newBuilder(size + other.size);
+		sweep(other, operation, builder);
+		return builder.build();
+	}
+
+	/**
+	 * Returns whether the given set operation between this range and the
+	 * given one yields a non-empty range. The result is not built and the
+	 * sweep stops as soon as the answer is known.
+	 *
+	 * @param other the other operand.
+	 * @param operation the operation to test.
+	 *
+	 * @return whether the result of the operation is non-empty.
+	 */
+	final boolean test(R other, Operation operation)
+	{
+		return sweep(other, operation, null);
+	}
+
+	/**
+	 * Returns whether this range is empty.
+	 *
+	 * @return whether this range is empty.
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/*
+	 * R being, by construction, the concrete type of this range, the cast
+	 * always succeeds.
+	 */
+	@SuppressWarnings("unchecked")
+	private R self()
+	{
+		return (R) this;
+	}
+
+	/**
+	 * Returns whether this range includes the given one.
+	 *
+	 * @param range the range to test.
+	 *
+	 * @return whether this range includes the given range.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public boolean includes(R range)
+	{
+		return !range.test(self(), Operation.SUBTRACTION);
+	}
+
+	/**
+	 * Returns whether this range intersects the given range.
+	 *
+	 * @param range the range to test for intesection.
+	 *
+	 * @return whether this range intersects the given one.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public boolean intersects(R range)
+	{
+		Parameters.checkNotNull(range);
+		return test(range, Operation.INTERSECTION);
+	}
+
+	/**
+	 * Returns the intersection of this range and the given one.
+	 *
+	 * @param range the range to compute the intersection with this one.
+	 *
+	 * @return the intersection of this range and the given one.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public R intersection(R range)
+	{
+		Parameters.checkNotNull(range);
+		return combine(range, Operation.INTERSECTION);
+	}
+
+	/**
+	 * Returns the union of this range and the given one.
+	 *
+	 * @param range the range to compute the union with this one.
+	 *
+	 * @return the union of this range with the given one.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public R union(R range)
+	{
+		Parameters.checkNotNull(range);
+		return combine(range, Operation.UNION);
+	}
+
+	/**
+	 * Subtracts the given range from this one.
+	 *
+	 * @param range the range to subtract.
+	 *
+	 * @return the subtraction of the given range from this one.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public R subtraction(R range)
+	{
+		Parameters.checkNotNull(range);
+		return combine(range, Operation.SUBTRACTION);
+	}
+
+	/**
+	 * Splits this range into intervals.
+	 *
+	 * @return the intervals constituing this range.
+	 */
+	public List<R> split()
+	{
+		R self = self();
+		if (isEmpty()) {
+			return Collections.singletonList(self);
+		}
+		List<R> intervals = new ArrayList<R>(size / 2);
+		for (int i = 0; i < size; i += 2) {
+			Builder<R, E> builder = newBuilder(2);
+			builder.add(self, i, closed.get(i));
+			builder.add(self, i + 1, closed.get(i + 1));
+			intervals.add(builder.build());
+		}
+		return Collections.unmodifiableList(intervals);
+	}
+
+	/**
+	 * Returns the {@code Range} equal to this range.
+	 *
+	 * @return the {@code Range} equal to this range.
+	 */
+	public Range<E> toRange()
+	{
+		return new SimpleRange<E>(segments());
+	}
+
+	/**
+	 * Returns the segments of this range, in increasing order.
+	 *
+	 * @return the segments of this range.
+	 */
+	final List<Segment<E>> segments()
+	{
+		List<Segment<E>> segments;
+		segments = new ArrayList<Segment<E>>(size / 2);
+		for (int i = 0; i < size; i += 2) {
+			segments.add(new Segment<E>(value(i), closed.get(i),
+				value(i + 1), closed.get(i + 1)));
+		}
+		return segments;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean equals(Object o)
+	{
+		if (o == this) {
+			return true;
+		}
+		if (o == null || o.getClass() != getClass()) {
+			return false;
+		}
+		final R range = (R) o;
+		if (size != range.size || !closed.equals(range.closed)) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (compareValues(i, range, i) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int hash = 7;
+		hash = 71 * hash + hashValues();
+		hash = 71 * hash + closed.hashCode();
+		return hash;
+	}
+
+	@Override
+	public String toString()
+	{
+		if (isEmpty()) {
+			return EMPTY_SET_CHARACTER;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < size; i += 2) {
+			if (i > 0) {
+				sb.append(" U ");
+			}
+			sb.append(closed.get(i) ? "[" : "]");
+			sb.append(value(i));
+			sb.append(", ");
+			sb.append(value(i + 1));
+			sb.append(closed.get(i + 1) ? "]" : "[");
+		}
+		return sb.toString();
+	}
+
+	/*
+	 * A bound is seen as a "cut" just below or just above its value: a
+	 * closed lower bound and an opened upper bound are just below, the
+	 * others just above. Sweeping the cuts of both ranges in increasing
+	 * order, while tracking whether the current position lies in each
+	 * range, gives the bounds of the result where its state changes.
+	 */
+	private boolean sweep(R other, Operation operation,
+		Builder<R, E> builder)
+	{
+		R self = self();
+		boolean inThis = false;
+		boolean inOther = false;
+		boolean in = false;
+		int i = 0;
+		int j = 0;
+		while (i < size || j < other.size) {
+			int cmp;
+			if (i == size) {
+				cmp = 1;
+			} else if (j == other.size) {
+				cmp = -1;
+			} else {
+				cmp = compareCuts(i, other, j);
+			}
+			R source = self;
+			int index = i;
+			if (cmp <= 0) {
+				inThis = (i++ & 1) == 0;
+			}
+			if (cmp >= 0) {
+				if (cmp > 0) {
+					source = other;
+					index = j;
+				}
+				inOther = (j++ & 1) == 0;
+			}
+			boolean state = operation.apply(inThis, inOther);
+			if (state != in) {
+				if (builder == null) {
+					return true;
+				}
+				boolean below = source.isBelow(index);
+				builder.add(source, index, state == below);
+				in = state;
+			}
+		}
+		return false;
+	}
+
+	private int compareCuts(int i, R other, int j)
+	{
+		int cmp = compareValues(i, other, j);
+		if (cmp != 0) {
+			return cmp;
+		}
+		boolean below = isBelow(i);
+		if (below == other.isBelow(j)) {
+			return 0;
+		}
+		return below ? -1 : 1;
+	}
+
+	/**
+	 * Returns whether the bound at the given index is a cut just below its
+	 * value (closed lower bound or opened upper bound).
+	 *
+	 * @param i the index of the bound.
+	 *
+	 * @return whether the bound lies just below its value.
+	 */
+	boolean isBelow(int i)
+	{
+		return closed.get(i) == ((i & 1) == 0);
+	}
+}
@@ -0,0 +1,345 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+
+package org.jrange;
+
+import static org.jrange.SimpleInterval.from;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jrange.Segment.Relation;
+
+/**
+ * A mutable mapping from disjoint intervals to values. The entries are kept in
+ * a navigable map sorted by lower bound, so that the value associated to any
+ * element is found in {@code O(log(n))} time. Putting an interval overwrites
+ * the parts of the existing entries that it overlaps: these entries are cut,
+ * and keep their value on the parts lying outside the new interval. This class
+ * is not thread-safe.
+ *
+ * @param <E> the type of the elements in the intervals.
+ * @param <V> the type of the values associated to the intervals.
+ *
+ * @author Osman KOCAK
+ */
+public final class RangeMap<E extends Comparable<? super E>, V>
+{
+	/**
+	 * Initiates the bulk loading of a new range map.
+	 *
+	 * @param <E> the type of the elements in the intervals.
+	 * @param <V> the type of the values associated to the intervals.
+	 *
+	 * @return a builder to load the map's entries, in increasing order.
+	 */
+	public static <E extends Comparable<? super E>, V>
+		Builder<E, V> builder()
+	{
+		return new Builder<E, V>();
+	}
+
+	/**
+	 * A range map builder, loading sorted and disjoint entries without
+	 * having to look for the entries they overlap. The entries are buffered
+	 * in a list, each of them being checked against the previous one only.
+	 *
+	 * @param <E> the type of the elements in the intervals.
+	 * @param <V> the type of the values associated to the intervals.
+	 */
+	public static final class Builder<E extends Comparable<? super E>, V>
+	{
+		private final List<Map.Entry<Segment<E>, V>> entries;
+		private Segment<E> last;
+
+		private Builder()
+		{
+			entries = new ArrayList<Map.Entry<Segment<E>, V>>();
+		}
+
+		/**
+		 * Adds an entry to the map to build. Each interval must lie
+		 * entirely after the previous one. Empty intervals are
+		 * ignored.
+		 *
+		 * @param interval the entry's interval.
+		 * @param value the value associated to the interval.
+		 *
+		 * @return this builder.
+		 *
+		 * @throws NullPointerException if one of the arguments is
+		 *	{@code null}.
+		 * @throws IllegalArgumentException if {@code interval} doesn't
+		 *	lie entirely after the previously added interval.
+		 */
+		public Builder<E, V> put(Interval<? extends E> interval,
+			V value)
+		{
+			Parameters.checkNotNull(value);
+			for (Segment<E> segment : Segments.split(interval)) {
+				Parameters.checkCondition(last == null
+					|| last.precedes(segment),
+					"Unsorted or overlapping interval");
+				entries.add(new AbstractMap.SimpleImmutableEntry
+					<Segment<E>, V>(segment, value));
+				last = segment;
+			}
+			return this;
+		}
+
+		/**
+		 * Builds the map holding all the entries added so far, in
+		 * {@code O(n log(n))} time. This builder can still be used
+		 * afterwards.
+		 *
+		 * @return the built map.
+		 */
+		public RangeMap<E, V> build()
+		{
+			TreeMap<Segment<E>, V> map = newTreeMap();
+			for (Map.Entry<Segment<E>, V> entry : entries) {
+				map.put(entry.getKey(), entry.getValue());
+			}
+			return new RangeMap<E, V>(map);
+		}
+	}
+
+	private final TreeMap<Segment<E>, V> entries;
+
+	/**
+	 * Creates a new empty {@code RangeMap}.
+	 */
+	public RangeMap()
+	{
+		this(RangeMap.<E, V>newTreeMap());
+	}
+
+	private RangeMap(TreeMap<Segment<E>, V> entries)
+	{
+		this.entries = entries;
+	}
+
+	private static <E extends Comparable<? super E>, V>
+		TreeMap<Segment<E>, V> newTreeMap()
+	{
+		return new TreeMap<Segment<E>, V>(
+			new LowerBoundComparator<E>());
+	}
+
+	/**
+	 * Returns the value associated to the interval containing the given
+	 * element, if any.
+	 *
+	 * @param value the element to look for.
+	 *
+	 * @return the value associated to {@code value}, or {@code null} if no
+	 *	interval of this map contains it.
+	 *
+	 * @throws NullPointerException if {@code value} is {@code null}.
+	 */
+	public V get(E value)
+	{
+		Parameters.checkNotNull(value);
+		Segment<E> point = new Segment<E>(value, true, value, true);
+		Map.Entry<Segment<E>, V> floor = entries.floorEntry(point);
+		if (floor == null || !floor.getKey().contains(value)) {
+			return null;
+		}
+		return floor.getValue();
+	}
+
+	/**
+	 * Associates the given value to all the elements of the given interval,
+	 * overwriting their previous values, if any. Empty intervals are
+	 * ignored.
+	 *
+	 * @param interval the interval.
+	 * @param value the value to associate to the interval.
+	 *
+	 * @return this map.
+	 *
+	 * @throws NullPointerException if one of the arguments is {@code null}.
+	 */
+	public RangeMap<E, V> put(Interval<? extends E> interval, V value)
+	{
+		Parameters.checkNotNull(value);
+		for (Segment<E> segment : Segments.split(interval)) {
+			cut(segment);
+			entries.put(segment, value);
+		}
+		return this;
+	}
+
+	/**
+	 * Associates the given value to all the elements of the given interval,
+	 * like {@link #put(Interval, Object)} does, and then merges the new
+	 * entry with the entries lying just before or just after it, if they
+	 * are associated to an equal value.
+	 *
+	 * @param interval the interval.
+	 * @param value the value to associate to the interval.
+	 *
+	 * @return this map.
+	 *
+	 * @throws NullPointerException if one of the arguments is {@code null}.
+	 */
+	public RangeMap<E, V> putCoalescing(Interval<? extends E> interval,
+		V value)
+	{
+		Parameters.checkNotNull(value);
+		for (Segment<E> segment : Segments.split(interval)) {
+			cut(segment);
+			Segment<E> merged = segment;
+			Map.Entry<Segment<E>, V> lower, higher;
+			lower = entries.lowerEntry(segment);
+			if (merges(lower, segment, value, Relation.MEETS)) {
+				entries.remove(lower.getKey());
+				merged = merged.span(lower.getKey());
+			}
+			higher = entries.higherEntry(segment);
+			if (merges(higher, segment, value, Relation.MET)) {
+				entries.remove(higher.getKey());
+				merged = merged.span(higher.getKey());
+			}
+			entries.put(merged, value);
+		}
+		return this;
+	}
+
+	/**
+	 * Removes the mappings of all the elements of the given interval.
+	 *
+	 * @param interval the interval to remove.
+	 *
+	 * @return this map.
+	 *
+	 * @throws NullPointerException if {@code interval} is {@code null}.
+	 */
+	public RangeMap<E, V> remove(Interval<? extends E> interval)
+	{
+		for (Segment<E> segment : Segments.split(interval)) {
+			cut(segment);
+		}
+		return this;
+	}
+
+	/**
+	 * Removes all the entries of this map.
+	 */
+	public void clear()
+	{
+		entries.clear();
+	}
+
+	/**
+	 * Returns the number of entries in this map.
+	 *
+	 * @return the number of entries in this map.
+	 */
+	public int size()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * Returns whether this map has no entry.
+	 *
+	 * @return whether this map is empty.
+	 */
+	public boolean isEmpty()
+	{
+		return entries.isEmpty();
+	}
+
+	/**
+	 * Returns a snapshot of the entries of this map, sorted by interval.
+	 *
+	 * @return the entries of this map, as a {@code Map}.
+	 */
+	public Map<Interval<E>, V> asMap()
+	{
+		Map<Interval<E>, V> map = new LinkedHashMap<Interval<E>, V>();
+		for (Map.Entry<Segment<E>, V> entry : entries.entrySet()) {
+			Segment<E> segment = entry.getKey();
+			Interval<E> interval;
+			interval = from(segment.lowerBound())
+				.to(segment.upperBound());
+			map.put(interval, entry.getValue());
+		}
+		return map;
+	}
+
+	@Override
+	public String toString()
+	{
+		return asMap().toString();
+	}
+
+	private static <E extends Comparable<? super E>, V> boolean merges(
+		Map.Entry<Segment<E>, V> entry, Segment<E> segment, V value,
+		Relation relation)
+	{
+		return entry != null && value.equals(entry.getValue())
+			&& entry.getKey().relate(segment) == relation;
+	}
+
+	/*
+	 * Removes the given segment from the entries: the entries it overlaps
+	 * are the last one starting before it, and the ones starting within it.
+	 * The parts of these entries lying outside the segment are put back.
+	 */
+	private void cut(Segment<E> segment)
+	{
+		Segment<E> from = segment;
+		Map.Entry<Segment<E>, V> lower = entries.lowerEntry(segment);
+		if (lower != null && lower.getKey().intersects(segment)) {
+			from = lower.getKey();
+		}
+		E upper = segment.upperValue();
+		boolean opened = !segment.isUpperClosed();
+		Segment<E> to = new Segment<E>(upper, opened, upper, opened);
+		Map<Segment<E>, V> pieces = new LinkedHashMap<Segment<E>, V>();
+		Iterator<Map.Entry<Segment<E>, V>> i;
+		i = entries.subMap(from, true, to, false).entrySet().iterator();
+		while (i.hasNext()) {
+			Map.Entry<Segment<E>, V> entry = i.next();
+			Segment<E> key = entry.getKey();
+			for (Segment<E> piece : key.subtraction(segment)) {
+				pieces.put(piece, entry.getValue());
+			}
+			i.remove();
+		}
+		entries.putAll(pieces);
+	}
+
+	/* Orders disjoint segments, the closed lower bounds first on ties. */
+	private static final class LowerBoundComparator<E
+		extends Comparable<? super E>> implements Comparator<Segment<E>>
+	{
+		@Override
+		public int compare(Segment<E> s1, Segment<E> s2)
+		{
+			return s1.compareLowerBoundTo(s2);
+		}
+	}
+}
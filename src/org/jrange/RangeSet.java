@@ -0,0 +1,240 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+
+package org.jrange;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jrange.Segment.Relation;
+
+/**
+ * A mutable set of values, made of disjoint intervals. Unlike a {@code Range},
+ * whose set operations return a new range, a {@code RangeSet} is updated in
+ * place: its canonical segments are kept in a navigable map keyed by their
+ * lower bound's value, so that adding or removing an interval costs
+ * {@code O(log(n) + m)}, where {@code n} is the number of segments in the set
+ * and {@code m} the number of segments merged or cut by the operation. An
+ * immutable snapshot of the set can be taken at any time through
+ * {@link #toRange()}. This class is not thread-safe.
+ *
+ * @param <E> the type of the elements in this set.
+ *
+ * @author Osman KOCAK
+ */
+public final class RangeSet<E extends Comparable<? super E>>
+{
+	private final TreeMap<E, Segment<E>> segments;
+	private Range<E> snapshot;
+
+	/**
+	 * Creates a new empty {@code RangeSet}.
+	 */
+	public RangeSet()
+	{
+		segments = new TreeMap<E, Segment<E>>();
+	}
+
+	/**
+	 * Creates a new {@code RangeSet} holding the values of the given range.
+	 *
+	 * @param range the initial content of the set.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public RangeSet(Range<? extends E> range)
+	{
+		this();
+		for (Segment<E> segment : Segments.split(range)) {
+			segments.put(segment.lowerValue(), segment);
+		}
+	}
+
+	/**
+	 * Adds the values of the given range to this set.
+	 *
+	 * @param range the range to add.
+	 *
+	 * @return this set.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public RangeSet<E> add(Range<? extends E> range)
+	{
+		for (Segment<E> segment : Segments.split(range)) {
+			add(segment);
+		}
+		return this;
+	}
+
+	/**
+	 * Removes the values of the given range from this set.
+	 *
+	 * @param range the range to remove.
+	 *
+	 * @return this set.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 */
+	public RangeSet<E> remove(Range<? extends E> range)
+	{
+		for (Segment<E> segment : Segments.split(range)) {
+			remove(segment);
+		}
+		return this;
+	}
+
+	/**
+	 * Removes all the values of this set.
+	 */
+	public void clear()
+	{
+		segments.clear();
+		snapshot = null;
+	}
+
+	/**
+	 * Returns whether this set is empty.
+	 *
+	 * @return whether this set is empty.
+	 */
+	public boolean isEmpty()
+	{
+		return segments.isEmpty();
+	}
+
+	/**
+	 * Returns the number of disjoint intervals making up this set.
+	 *
+	 * @return the number of intervals in this set.
+	 */
+	public int intervalCount()
+	{
+		return segments.size();
+	}
+
+	/**
+	 * Returns whether this set contains the given value.
+	 *
+	 * @param value the value to test.
+	 *
+	 * @return whether this set contains the given value.
+	 *
+	 * @throws NullPointerException if {@code value} is {@code null}.
+	 */
+	public boolean contains(E value)
+	{
+		Parameters.checkNotNull(value);
+		Map.Entry<E, Segment<E>> floor = segments.floorEntry(value);
+		return floor != null && floor.getValue().contains(value);
+	}
+
+	/**
+	 * Returns an immutable snapshot of this set. Snapshots are not affected
+	 * by later updates of this set, and the same snapshot is returned as
+	 * long as this set is not modified. The snapshot is built in
+	 * {@code O(n)} by the first call following a modification; the calls
+	 * that follow are constant-time.
+	 *
+	 * @return the current content of this set, as a {@code Range}.
+	 */
+	public Range<E> toRange()
+	{
+		Range<E> range = snapshot;
+		if (range == null) {
+			if (segments.isEmpty()) {
+				range = Ranges.emptyRange();
+			} else {
+				int n = segments.size();
+				range = new SimpleRange<E>(segments.values()
+					.toArray(new Segment[n]));
+			}
+			snapshot = range;
+		}
+		return range;
+	}
+
+	@Override
+	public String toString()
+	{
+		return toRange().toString();
+	}
+
+	/*
+	 * The segments that may intersect or meet the given one are the last
+	 * one starting before its lower bound's value, and the ones starting
+	 * between its bounds' values.
+	 */
+	private void add(Segment<E> segment)
+	{
+		Segment<E> merged = segment;
+		E from = segment.lowerValue();
+		Map.Entry<E, Segment<E>> floor = segments.floorEntry(from);
+		if (floor != null && floor.getValue().includes(segment)) {
+			return;
+		}
+		Map.Entry<E, Segment<E>> lower = segments.lowerEntry(from);
+		if (lower != null && touches(lower.getValue(), segment)) {
+			from = lower.getKey();
+		}
+		Iterator<Segment<E>> i = segments.subMap(from, true,
+			segment.upperValue(), true).values().iterator();
+		while (i.hasNext()) {
+			Segment<E> next = i.next();
+			if (touches(next, merged)) {
+				merged = merged.span(next);
+				i.remove();
+			}
+		}
+		segments.put(merged.lowerValue(), merged);
+		snapshot = null;
+	}
+
+	private void remove(Segment<E> segment)
+	{
+		E from = segment.lowerValue();
+		Map.Entry<E, Segment<E>> lower = segments.lowerEntry(from);
+		if (lower != null && lower.getValue().intersects(segment)) {
+			from = lower.getKey();
+		}
+		List<Segment<E>> pieces = new ArrayList<Segment<E>>(2);
+		Iterator<Segment<E>> i = segments.subMap(from, true,
+			segment.upperValue(), true).values().iterator();
+		while (i.hasNext()) {
+			Segment<E> next = i.next();
+			if (next.intersects(segment)) {
+				pieces.addAll(next.subtraction(segment));
+				i.remove();
+				snapshot = null;
+			}
+		}
+		for (Segment<E> piece : pieces) {
+			segments.put(piece.lowerValue(), piece);
+		}
+	}
+
+	private static <E extends Comparable<? super E>> boolean touches(
+		Segment<E> s1, Segment<E> s2)
+	{
+		Relation relation = s1.relate(s2);
+		return relation.intersects || relation == Relation.MEETS
+			|| relation == Relation.MET;
+	}
+}
@@ -18,6 +18,7 @@ package org.jrange;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -45,6 +46,96 @@ public final class Ranges
 		return (Range<E>) EMPTY_RANGE;
 	}
 
+	/**
+	 * Returns the sequence of the values contained in the given range, as
+	 * generated by the given sequencer. Unlike {@link Range#sequence}, the
+	 * returned sequence can be iterated over without boxing its elements.
+	 *
+	 * @param range the range to sequence.
+	 * @param sequencer the sequencer to use.
+	 *
+	 * @return the sequence of the values of the given range.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 * @throws NullPointerException if {@code sequencer} is {@code null}.
+	 */
+	public static IntSequence sequence(Range<Integer> range,
+		IntegerSequencer sequencer)
+	{
+		Parameters.checkNotNull(sequencer);
+		List<Segment<Integer>> segments = Segments.split(range);
+		return new LazyIntSequence(segments, sequencer.step());
+	}
+
+	/**
+	 * Returns the sequence of the values contained in the given range, as
+	 * generated by the given sequencer. Unlike {@link Range#sequence}, the
+	 * returned sequence can be iterated over without boxing its elements.
+	 *
+	 * @param range the range to sequence.
+	 * @param sequencer the sequencer to use.
+	 *
+	 * @return the sequence of the values of the given range.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 * @throws NullPointerException if {@code sequencer} is {@code null}.
+	 */
+	public static LongSequence sequence(Range<Long> range,
+		LongSequencer sequencer)
+	{
+		Parameters.checkNotNull(sequencer);
+		List<Segment<Long>> segments = Segments.split(range);
+		return new LazyLongSequence(segments, sequencer.step());
+	}
+
+	/**
+	 * Returns the sequence of the values contained in the given range, as
+	 * generated by the given sequencer. Unlike {@link Range#sequence}, the
+	 * returned sequence can be iterated over without boxing its elements,
+	 * and computes the k-th element of each segment directly as
+	 * {@code lower + k * step} (see {@link DoubleSequencer#advance}).
+	 *
+	 * @param range the range to sequence.
+	 * @param sequencer the sequencer to use.
+	 *
+	 * @return the sequence of the values of the given range.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 * @throws NullPointerException if {@code sequencer} is {@code null}.
+	 * @throws IllegalArgumentException if a segment of {@code range} has
+	 *	an infinite lower value.
+	 */
+	public static DoubleSequence sequence(Range<Double> range,
+		DoubleSequencer sequencer)
+	{
+		Parameters.checkNotNull(sequencer);
+		List<Segment<Double>> segments = Segments.split(range);
+		return LazyDoubleSequence.create(segments, sequencer);
+	}
+
+	/**
+	 * Returns the sequence of the dates contained in the given range, as
+	 * generated by the given sequencer. Unlike {@link Range#sequence}, the
+	 * returned sequence computes its elements on epoch milliseconds, and
+	 * can be iterated over without creating any {@code Date} through
+	 * {@link DateSequence#millis()}.
+	 *
+	 * @param range the range to sequence.
+	 * @param sequencer the sequencer to use.
+	 *
+	 * @return the sequence of the dates of the given range.
+	 *
+	 * @throws NullPointerException if {@code range} is {@code null}.
+	 * @throws NullPointerException if {@code sequencer} is {@code null}.
+	 */
+	public static DateSequence sequence(Range<Date> range,
+		DateSequencer sequencer)
+	{
+		Parameters.checkNotNull(sequencer);
+		List<Segment<Date>> segments = Segments.split(range);
+		return new LazyDateSequence(segments, sequencer.step());
+	}
+
 	private static final class EmptyInterval
 		extends AbstractRange implements Interval
 	{
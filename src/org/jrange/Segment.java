@@ -25,7 +25,9 @@ import java.util.Collections;
 import java.util.List;
 
 /**
- * This class represents a continuous segment.
+ * This class represents a continuous segment. The bounds' values and their
+ * closedness are stored directly in the segment, {@code Bound}s are only
+ * created on demand.
  *
  * @param <E> the type of the elements in this segment.
  *
@@ -34,8 +36,11 @@ import java.util.List;
 final class Segment<E extends Comparable<? super E>>
 	implements Comparable<Segment<E>>
 {
-	private final LowerBound<E> lower;
-	private final UpperBound<E> upper;
+	private final E lower;
+	private final E upper;
+	private final boolean lowerClosed;
+	private final boolean upperClosed;
+	private final boolean empty;
 
 	/**
 	 * Creates a new {@code Segment}.
@@ -47,14 +52,29 @@ final class Segment<E extends Comparable<? super E>>
 	 */
 	Segment(Bound<? extends E> lower, Bound<? extends E> upper)
 	{
-		this.lower = new LowerBound<E>(lower);
-		this.upper = new UpperBound<E>(upper);
+		this(lower.value(), lower.isClosed(),
+			upper.value(), upper.isClosed());
 	}
 
-	private Segment(LowerBound<E> lower, UpperBound<E> upper)
+	/**
+	 * Creates a new {@code Segment}.
+	 *
+	 * @param lower the lower bound's value.
+	 * @param lowerClosed whether the lower bound is closed.
+	 * @param upper the upper bound's value.
+	 * @param upperClosed whether the upper bound is closed.
+	 *
+	 * @throws NullPointerException if one of the values is {@code null}.
+	 */
+	Segment(E lower, boolean lowerClosed, E upper, boolean upperClosed)
 	{
 		this.lower = lower;
 		this.upper = upper;
+		this.lowerClosed = lowerClosed;
+		this.upperClosed = upperClosed;
+		int cmp = upper.compareTo(lower);
+		this.empty = cmp < 0
+			|| cmp == 0 && !(lowerClosed && upperClosed);
 	}
 
 	/**
@@ -64,7 +84,7 @@ final class Segment<E extends Comparable<? super E>>
 	 */
 	public Bound<E> lowerBound()
 	{
-		return lower.bound;
+		return lowerClosed ? Bound.closed(lower) : Bound.opened(lower);
 	}
 
 	/**
@@ -74,7 +94,47 @@ final class Segment<E extends Comparable<? super E>>
 	 */
 	public Bound<E> upperBound()
 	{
-		return upper.bound;
+		return upperClosed ? Bound.closed(upper) : Bound.opened(upper);
+	}
+
+	/**
+	 * Returns the value of this segment's lower bound.
+	 *
+	 * @return the value of this segment's lower bound.
+	 */
+	E lowerValue()
+	{
+		return lower;
+	}
+
+	/**
+	 * Returns the value of this segment's upper bound.
+	 *
+	 * @return the value of this segment's upper bound.
+	 */
+	E upperValue()
+	{
+		return upper;
+	}
+
+	/**
+	 * Returns whether this segment's lower bound is closed.
+	 *
+	 * @return whether this segment's lower bound is closed.
+	 */
+	boolean isLowerClosed()
+	{
+		return lowerClosed;
+	}
+
+	/**
+	 * Returns whether this segment's upper bound is closed.
+	 *
+	 * @return whether this segment's upper bound is closed.
+	 */
+	boolean isUpperClosed()
+	{
+		return upperClosed;
 	}
 
 	/**
@@ -89,12 +149,96 @@ final class Segment<E extends Comparable<? super E>>
 	public boolean contains(E value)
 	{
 		Parameters.checkNotNull(value);
-		return lower.compareTo(value) <= 0
-			&& upper.compareTo(value) >= 0;
+		return compareLowerBoundTo(value) <= 0
+			&& compareUpperBoundTo(value) >= 0;
 	}
 
 	/**
-	 * Returns whether this segment contains the given one.
+	 * Locates the given value relatively to this (non-empty) segment.
+	 *
+	 * @param value the value to locate.
+	 *
+	 * @return a negative integer, zero, or a positive integer as the given
+	 *	value lies before, in, or after this segment.
+	 *
+	 * @throws NullPointerException if {@code value} is {@code null}.
+	 */
+	int locate(E value)
+	{
+		if (compareLowerBoundTo(value) > 0) {
+			return -1;
+		}
+		if (compareUpperBoundTo(value) < 0) {
+			return 1;
+		}
+		return 0;
+	}
+
+	/**
+	 * Compares the upper bound of this segment with the upper bound of the
+	 * given one. If both bounds have the same value, the opened one comes
+	 * first. Both segments must be non-empty.
+	 *
+	 * @param segment the segment to compare with this one.
+	 *
+	 * @return a negative integer, zero, or a positive integer as this
+	 *	segment's upper bound is less than, equal to, or greater than
+	 *	the given segment's one.
+	 *
+	 * @throws NullPointerException if {@code segment} is {@code null}.
+	 */
+	int compareUpperBoundTo(Segment<E> segment)
+	{
+		int cmp = upper.compareTo(segment.upper);
+		if (cmp == 0 && upperClosed != segment.upperClosed) {
+			return upperClosed ? 1 : -1;
+		}
+		return cmp;
+	}
+
+	/**
+	 * Compares the lower bound of this segment with the lower bound of the
+	 * given one. If both bounds have the same value, the closed one comes
+	 * first. Both segments must be non-empty.
+	 *
+	 * @param segment the segment to compare with this one.
+	 *
+	 * @return a negative integer, zero, or a positive integer as this
+	 *	segment's lower bound is less than, equal to, or greater than
+	 *	the given segment's one.
+	 *
+	 * @throws NullPointerException if {@code segment} is {@code null}.
+	 */
+	int compareLowerBoundTo(Segment<E> segment)
+	{
+		int cmp = lower.compareTo(segment.lower);
+		if (cmp == 0 && lowerClosed != segment.lowerClosed) {
+			return lowerClosed ? -1 : 1;
+		}
+		return cmp;
+	}
+
+	/**
+	 * Returns whether this segment lies entirely before the given one,
+	 * that is, whether all of its values are lower than all the values of
+	 * the given segment. Both segments must be non-empty.
+	 *
+	 * @param segment the segment to test.
+	 *
+	 * @return whether this segment lies entirely before the given one.
+	 *
+	 * @throws NullPointerException if {@code segment} is {@code null}.
+	 */
+	boolean precedes(Segment<E> segment)
+	{
+		int cmp = upper.compareTo(segment.lower);
+		return cmp < 0
+			|| cmp == 0 && !(upperClosed && segment.lowerClosed);
+	}
+
+	/**
+	 * Returns whether this segment contains the given one. An empty
+	 * segment, whatever its bounds, is contained in every segment.
 	 *
 	 * @param segment the segment to test.
 	 *
@@ -107,10 +251,10 @@ final class Segment<E extends Comparable<? super E>>
 		if (isEmpty()) {
 			return segment.isEmpty();
 		}
-		return (contains(segment.lower.bound.value())
-			|| lower.equals(segment.lower))
-			&& (contains(segment.upper.bound.value())
-			|| upper.equals(segment.upper));
+		if (segment.isEmpty()) {
+			return true;
+		}
+		return relate(segment) == Relation.INCLUDES;
 	}
 
 	/**
@@ -124,19 +268,7 @@ final class Segment<E extends Comparable<? super E>>
 	 */
 	public boolean intersects(Segment<E> segment)
 	{
-		Parameters.checkNotNull(segment);
-		if (isEmpty() || segment.isEmpty()) {
-			return false;
-		}
-		if (includes(segment) || segment.includes(this)) {
-			return true;
-		}
-		if (compareTo(segment) < 0) {
-			return contains(segment.lower.bound.value())
-				&& segment.contains(upper.bound.value());
-		}
-		return contains(segment.upper.bound.value())
-			&& segment.contains(lower.bound.value());
+		return relate(segment).intersects;
 	}
 
 	/**
@@ -150,15 +282,7 @@ final class Segment<E extends Comparable<? super E>>
 	 */
 	public boolean isConsecutiveTo(Segment<E> segment)
 	{
-		Parameters.checkNotNull(segment);
-		if (isEmpty() || segment.isEmpty() || intersects(segment)) {
-			return false;
-		}
-		if (segment.upper.bound.isOpened() && lower.bound.isOpened()) {
-			return false;
-		}
-		return lower.bound.value()
-			.compareTo(segment.upper.bound.value()) == 0;
+		return relate(segment) == Relation.MET;
 	}
 
 	/**
@@ -168,11 +292,50 @@ final class Segment<E extends Comparable<? super E>>
 	 */
 	public boolean isEmpty()
 	{
-		int cmp = upper.bound.value().compareTo(lower.bound.value());
-		if (cmp == 0) {
-			return lower.bound.isOpened() || upper.bound.isOpened();
+		return empty;
+	}
+
+	/**
+	 * Returns how this segment relates to the given one. If one of the two
+	 * segments is empty, {@link Relation#NONE} is returned.
+	 *
+	 * @param segment the segment to relate this one to.
+	 *
+	 * @return the relation between this segment and the given one.
+	 *
+	 * @throws NullPointerException if {@code segment} is {@code null}.
+	 */
+	Relation relate(Segment<E> segment)
+	{
+		Parameters.checkNotNull(segment);
+		if (empty || segment.empty) {
+			return Relation.NONE;
+		}
+		int cmp = upper.compareTo(segment.lower);
+		if (cmp < 0) {
+			return Relation.BEFORE;
 		}
-		return cmp < 0;
+		if (cmp == 0 && !(upperClosed && segment.lowerClosed)) {
+			return upperClosed || segment.lowerClosed
+				? Relation.MEETS : Relation.BEFORE;
+		}
+		cmp = lower.compareTo(segment.upper);
+		if (cmp > 0) {
+			return Relation.AFTER;
+		}
+		if (cmp == 0 && !(lowerClosed && segment.upperClosed)) {
+			return lowerClosed || segment.upperClosed
+				? Relation.MET : Relation.AFTER;
+		}
+		int l = compareLowerBoundTo(segment);
+		int u = compareUpperBoundTo(segment);
+		if (l <= 0 && u >= 0) {
+			return Relation.INCLUDES;
+		}
+		if (l >= 0 && u <= 0) {
+			return Relation.INCLUDED;
+		}
+		return l < 0 ? Relation.OVERLAPS : Relation.OVERLAPPED;
 	}
 
 	/**
@@ -187,19 +350,21 @@ final class Segment<E extends Comparable<? super E>>
 	 */
 	public Segment<E> intersection(Segment<E> segment)
 	{
-		if (!intersects(segment)) {
-			return null;
+		switch (relate(segment)) {
+			case INCLUDES:
+				return segment;
+			case INCLUDED:
+				return this;
+			case OVERLAPS:
+				return new Segment<E>(segment.lower,
+					segment.lowerClosed, upper,
+					upperClosed);
+			case OVERLAPPED:
+				return new Segment<E>(lower, lowerClosed,
+					segment.upper, segment.upperClosed);
+			default:
+				return null;
 		}
-		if (includes(segment)) {
-			return segment;
-		}
-		if (segment.includes(this)) {
-			return this;
-		}
-		if (compareTo(segment) > 0) {
-			return new Segment<E>(lower, segment.upper);
-		}
-		return new Segment<E>(segment.lower, upper);
 	}
 
 	/**
@@ -213,23 +378,27 @@ final class Segment<E extends Comparable<? super E>>
 	 */
 	public List<Segment<E>> union(Segment<E> segment)
 	{
-		if (!intersects(segment) && !areConsecutive(this, segment)) {
-			if (compareTo(segment) > 0) {
-				return Arrays.asList(segment, this);
-			}
-			return Arrays.asList(this, segment);
-		}
-		Segment<E> union;
-		if (includes(segment)) {
-			union = this;
-		} else if (segment.includes(this)) {
-			union = segment;
-		} else if (compareTo(segment) > 0) {
-			union = new Segment<E>(segment.lower, upper);
-		} else {
-			union = new Segment<E>(lower, segment.upper);
+		switch (relate(segment)) {
+			case INCLUDES:
+				return Arrays.asList(this);
+			case INCLUDED:
+				return Arrays.asList(segment);
+			case MEETS:
+			case OVERLAPS:
+				return Arrays.asList(new Segment<E>(
+					lower, lowerClosed,
+					segment.upper, segment.upperClosed));
+			case MET:
+			case OVERLAPPED:
+				return Arrays.asList(new Segment<E>(
+					segment.lower, segment.lowerClosed,
+					upper, upperClosed));
+			default:
+				if (compareTo(segment) > 0) {
+					return Arrays.asList(segment, this);
+				}
+				return Arrays.asList(this, segment);
 		}
-		return Arrays.asList(union);
 	}
 
 	/**
@@ -243,45 +412,31 @@ final class Segment<E extends Comparable<? super E>>
 	 */
 	public List<Segment<E>> subtraction(Segment<E> segment)
 	{
-		if (segment.includes(this)) {
+		if (isEmpty()) {
 			return Collections.emptyList();
 		}
 		List<Segment<E>> segments = new ArrayList<Segment<E>>();
-		E lowerValue = segment.lower.bound.value();
-		E upperValue = segment.upper.bound.value();
-		if (!intersects(segment)) {
-			segments.add(this);
-		} else if (includes(segment)) {
-			Bound<E> upperBound;
-			if (segment.lower.bound.isClosed()) {
-				upperBound = Bound.opened(lowerValue);
-			} else {
-				upperBound = Bound.closed(lowerValue);
-			}
-			segments.add(new Segment<E>(lower.bound, upperBound));
-			Bound<E> lowerBound;
-			if (segment.upper.bound.isClosed()) {
-				lowerBound = Bound.opened(upperValue);
-			} else {
-				lowerBound = Bound.closed(upperValue);
-			}
-			segments.add(new Segment<E>(lowerBound, upper.bound));
-		} else if (compareTo(segment) > 0) {
-			Bound<E> lowerBound;
-			if (segment.upper.bound.isClosed()) {
-				lowerBound = Bound.opened(upperValue);
-			} else {
-				lowerBound = Bound.closed(upperValue);
-			}
-			segments.add(new Segment<E>(lowerBound, upper.bound));
-		} else {
-			Bound<E> upperBound;
-			if (segment.lower.bound.isClosed()) {
-				upperBound = Bound.opened(lowerValue);
-			} else {
-				upperBound = Bound.closed(lowerValue);
-			}
-			segments.add(new Segment<E>(lower.bound, upperBound));
+		switch (relate(segment)) {
+			case INCLUDED:
+				break;
+			case INCLUDES:
+				segments.add(new Segment<E>(lower, lowerClosed,
+					segment.lower, !segment.lowerClosed));
+				segments.add(new Segment<E>(segment.upper,
+					!segment.upperClosed, upper,
+					upperClosed));
+				break;
+			case OVERLAPS:
+				segments.add(new Segment<E>(lower, lowerClosed,
+					segment.lower, !segment.lowerClosed));
+				break;
+			case OVERLAPPED:
+				segments.add(new Segment<E>(segment.upper,
+					!segment.upperClosed, upper,
+					upperClosed));
+				break;
+			default:
+				segments.add(this);
 		}
 		return canonicalize(segments);
 	}
@@ -309,34 +464,11 @@ final class Segment<E extends Comparable<? super E>>
 			return null;
 		}
 		if (compareTo(segment) > 0) {
-			Bound<E> lowerBound;
-			E upperValue = segment.upper.bound.value();
-			if (segment.upper.bound.isClosed()) {
-				lowerBound = Bound.opened(upperValue);
-			} else {
-				lowerBound = Bound.closed(upperValue);
-			}
-			Bound<E> upperBound;
-			if (lower.bound.isClosed()) {
-				upperBound = Bound.opened(lower.bound.value());
-			} else {
-				upperBound = Bound.closed(lower.bound.value());
-			}
-			return new Segment<E>(lowerBound, upperBound);
-		}
-		Bound<E> lowerBound;
-		if (upper.bound.isClosed()) {
-			lowerBound = Bound.opened(upper.bound.value());
-		} else {
-			lowerBound = Bound.closed(upper.bound.value());
+			return new Segment<E>(segment.upper,
+				!segment.upperClosed, lower, !lowerClosed);
 		}
-		Bound<E> upperBound;
-		if (segment.lower.bound.isClosed()) {
-			upperBound = Bound.opened(segment.lower.bound.value());
-		} else {
-			upperBound = Bound.closed(segment.lower.bound.value());
-		}
-		return new Segment<E>(lowerBound, upperBound);
+		return new Segment<E>(upper, !upperClosed,
+			segment.lower, !segment.lowerClosed);
 	}
 
 	/**
@@ -351,17 +483,17 @@ final class Segment<E extends Comparable<? super E>>
 	 */
 	public Segment<E> expandTo(E value)
 	{
+		Parameters.checkNotNull(value);
 		if (isEmpty()) {
-			Bound<E> bound = Bound.closed(value);
-			return new Segment(bound, bound);
+			return new Segment<E>(value, true, value, true);
 		}
 		if (contains(value)) {
 			return this;
 		}
-		if (lower.compareTo(value) > 0) {
-			return new Segment<E>(Bound.closed(value), upper.bound);
+		if (compareLowerBoundTo(value) > 0) {
+			return new Segment<E>(value, true, upper, upperClosed);
 		}
-		return new Segment<E>(lower.bound, Bound.closed(value));
+		return new Segment<E>(lower, lowerClosed, value, true);
 	}
 
 	/**
@@ -375,12 +507,10 @@ final class Segment<E extends Comparable<? super E>>
 		if (isEmpty()) {
 			return this;
 		}
-		if (lower.bound.isClosed() && upper.bound.isClosed()) {
+		if (lowerClosed && upperClosed) {
 			return this;
 		}
-		Bound<E> lowerBound = Bound.closed(lower.bound.value());
-		Bound<E> upperBound = Bound.closed(upper.bound.value());
-		return new Segment<E>(lowerBound, upperBound);
+		return new Segment<E>(lower, true, upper, true);
 	}
 
 	/**
@@ -394,12 +524,38 @@ final class Segment<E extends Comparable<? super E>>
 		if (isEmpty()) {
 			return this;
 		}
-		if (lower.bound.isOpened() && upper.bound.isOpened()) {
+		if (!lowerClosed && !upperClosed) {
 			return this;
 		}
-		Bound<E> lowerBound = Bound.opened(lower.bound.value());
-		Bound<E> upperBound = Bound.opened(upper.bound.value());
-		return new Segment<E>(lowerBound, upperBound);
+		return new Segment<E>(lower, false, upper, false);
+	}
+
+	/**
+	 * Returns the smallest segment that includes both this segment and the
+	 * given one. Both segments must be non-empty.
+	 *
+	 * @param segment the segment to span to.
+	 *
+	 * @return the smallest segment including both segments.
+	 *
+	 * @throws NullPointerException if {@code segment} is {@code null}.
+	 */
+	Segment<E> span(Segment<E> segment)
+	{
+		boolean lowest = compareLowerBoundTo(segment) <= 0;
+		boolean highest = compareUpperBoundTo(segment) >= 0;
+		if (lowest && highest) {
+			return this;
+		}
+		if (!lowest && !highest) {
+			return segment;
+		}
+		if (lowest) {
+			return new Segment<E>(lower, lowerClosed,
+				segment.upper, segment.upperClosed);
+		}
+		return new Segment<E>(segment.lower, segment.lowerClosed,
+			upper, upperClosed);
 	}
 
 	/**
@@ -442,19 +598,18 @@ final class Segment<E extends Comparable<? super E>>
 		} else if (segment.isEmpty()) {
 			return 1;
 		}
-		if (lower.equals(segment.lower)) {
-			if (upper.equals(segment.upper)) {
-				return 0;
-			}
-			return upper.compareTo(segment.upper.bound.value());
+		int cmp = compareLowerBoundTo(segment);
+		if (cmp == 0) {
+			return compareUpperBoundTo(segment);
 		}
-		return lower.compareTo(segment.lower.bound.value());
+		return cmp;
 	}
 
 	@Override
 	public String toString()
 	{
-		return lower + ", " + upper;
+		return (lowerClosed ? "[" : "]") + lower + ", "
+			+ upper + (upperClosed ? "]" : "[");
 	}
 
 	@Override
@@ -470,7 +625,7 @@ final class Segment<E extends Comparable<? super E>>
 		if (isEmpty()) {
 			return s.isEmpty();
 		}
-		return lower.equals(s.lower) && upper.equals(s.upper);
+		return hasSameLowerBoundAs(s) && hasSameUpperBoundAs(s);
 	}
 
 	@Override
@@ -481,113 +636,71 @@ final class Segment<E extends Comparable<? super E>>
 		}
 		int hash = 7;
 		hash = 59 * hash + upper.hashCode();
+		hash = 59 * hash + (upperClosed ? 1 : 0);
 		hash = 59 * hash + lower.hashCode();
+		hash = 59 * hash + (lowerClosed ? 1 : 0);
 		return hash;
 	}
 
-	private static final class LowerBound<E extends Comparable<? super E>>
-		implements Comparable<E>
+	/**
+	 * The possible relations between two segments.
+	 */
+	static enum Relation
 	{
-		private final Bound<E> bound;
-
-		LowerBound(Bound<? extends E> bound)
-		{
-			if (bound.isClosed()) {
-				this.bound = Bound.closed(bound.value());
-			} else {
-				this.bound = Bound.opened(bound.value());
-			}
-		}
-
-		@Override
-		public int compareTo(E e)
+		/** One of the segments is empty. */
+		NONE(false),
+		/** The first segment lies before the second one. */
+		BEFORE(false),
+		/** The first segment lies just before the second one. */
+		MEETS(false),
+		/** The first segment overlaps the start of the second one. */
+		OVERLAPS(true),
+		/** The first segment includes the second one. */
+		INCLUDES(true),
+		/** The first segment is strictly included in the second one. */
+		INCLUDED(true),
+		/** The first segment overlaps the end of the second one. */
+		OVERLAPPED(true),
+		/** The first segment lies just after the second one. */
+		MET(false),
+		/** The first segment lies after the second one. */
+		AFTER(false);
+
+		final boolean intersects;
+
+		private Relation(boolean intersects)
 		{
-			int cmp = bound.value().compareTo(e);
-			if (cmp == 0 && bound.isOpened()) {
-				return 1;
-			}
-			return cmp;
-		}
-
-		@Override
-		public String toString()
-		{
-			if (bound.isClosed()) {
-				return "[" + bound.value();
-			}
-			return "]" + bound.value();
-		}
-
-		@Override
-		public boolean equals(Object o)
-		{
-			if (o == this) {
-				return true;
-			}
-			if (!(o instanceof LowerBound)) {
-				return false;
-			}
-			final LowerBound<E> b = (LowerBound<E>) o;
-			return bound.equals(b.bound);
-		}
-
-		@Override
-		public int hashCode()
-		{
-			return bound.hashCode();
+			this.intersects = intersects;
 		}
 	}
 
-	private static final class UpperBound<E extends Comparable<? super E>>
-		implements Comparable<E>
+	private int compareLowerBoundTo(E value)
 	{
-		private final Bound<E> bound;
-
-		UpperBound(Bound<? extends E> bound)
-		{
-			if (bound.isClosed()) {
-				this.bound = Bound.closed(bound.value());
-			} else {
-				this.bound = Bound.opened(bound.value());
-			}
-		}
-
-		@Override
-		public int compareTo(E e)
-		{
-			int cmp = bound.value().compareTo(e);
-			if (cmp == 0 && bound.isOpened()) {
-				return -1;
-			}
-			return cmp;
+		int cmp = lower.compareTo(value);
+		if (cmp == 0 && !lowerClosed) {
+			return 1;
 		}
+		return cmp;
+	}
 
-		@Override
-		public String toString()
-		{
-			if (bound.isClosed()) {
-				return bound.value() + "]";
-			}
-			return bound.value() + "[";
+	private int compareUpperBoundTo(E value)
+	{
+		int cmp = upper.compareTo(value);
+		if (cmp == 0 && !upperClosed) {
+			return -1;
 		}
+		return cmp;
+	}
 
-		@Override
-		public boolean equals(Object o)
-		{
-			if (o == this) {
-				return true;
-			}
-			if (!(o instanceof UpperBound)) {
-				return false;
-			}
-			final UpperBound<E> b = (UpperBound<E>) o;
-			return bound.equals(b.bound);
-		}
+	private boolean hasSameLowerBoundAs(Segment<E> segment)
+	{
+		return lowerClosed == segment.lowerClosed
+			&& lower.equals(segment.lower);
+	}
 
-		@Override
-		public int hashCode()
-		{
-			return bound.hashCode();
-		}
+	private boolean hasSameUpperBoundAs(Segment<E> segment)
+	{
+		return upperClosed == segment.upperClosed
+			&& upper.equals(segment.upper);
 	}
 }
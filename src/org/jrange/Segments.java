@@ -19,9 +19,10 @@ package org.jrange;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
+import org.jrange.Segment.Relation;
+
 /**
  * Utility class containing only static methods that operate on or return
  * {@code Segment}s.
@@ -52,7 +53,9 @@ final class Segments
 	/**
 	 * Canonicalizes the given segments. Canonicalization consists in
 	 * deleting empty segments (if any), computing the union of all the
-	 * remaining segments and, finally, sorting them.
+	 * remaining segments and, finally, sorting them. The segments are
+	 * sorted once and then merged in a single pass; the sort is skipped
+	 * if they already are in order.
 	 *
 	 * @param <E> the type of the elements in the handled segments.
 	 * @param segments the segments to canonicalize.
@@ -64,34 +67,45 @@ final class Segments
 	static <E extends Comparable<? super E>>
 		List<Segment<E>> canonicalize(List<Segment<E>> segments)
 	{
-		List<Segment<E>> tmp = new ArrayList<Segment<E>>(segments);
-		Iterator<Segment<E>> i = tmp.iterator();
-		while (i.hasNext()) {
-			if (i.next().isEmpty()) {
-				i.remove();
+		int size = segments.size();
+		List<Segment<E>> tmp = new ArrayList<Segment<E>>(size);
+		for (Segment<E> segment : segments) {
+			if (!segment.isEmpty()) {
+				tmp.add(segment);
 			}
 		}
 		int n = tmp.size();
 		if (n < 2) {
-			return tmp;
+			return Collections.unmodifiableList(tmp);
 		}
-		if (n == 2) {
-			return tmp.get(0).union(tmp.get(1));
+		if (!isSorted(tmp)) {
+			Collections.sort(tmp);
 		}
-		Collections.sort(tmp);
-		List<Segment<E>> head = canonicalize(tmp.subList(0, 2));
-		List<Segment<E>> tail = canonicalize(tmp.subList(2, n));
-		List<Segment<E>> fusion = new ArrayList<Segment<E>>();
-		if (head.size() > 1) {
-			fusion.add(head.get(0));
-			fusion.addAll(head.get(1).union(tail.get(0)));
-		} else {
-			fusion.addAll(head.get(0).union(tail.get(0)));
+		int last = 0;
+		for (int i = 1; i < n; i++) {
+			Segment<E> current = tmp.get(last);
+			Segment<E> next = tmp.get(i);
+			Relation relation = current.relate(next);
+			if (relation.intersects || relation == Relation.MEETS) {
+				tmp.set(last, current.span(next));
+			} else {
+				tmp.set(++last, next);
+			}
 		}
-		if (tail.size() > 1) {
-			fusion.addAll(tail.subList(1, tail.size()));
+		tmp.subList(last + 1, n).clear();
+		return Collections.unmodifiableList(tmp);
+	}
+
+	private static <E extends Comparable<? super E>>
+		boolean isSorted(List<Segment<E>> segments)
+	{
+		for (int i = segments.size() - 1; i > 0; i--) {
+			Segment<E> previous = segments.get(i - 1);
+			if (previous.compareTo(segments.get(i)) > 0) {
+				return false;
+			}
 		}
-		return Collections.unmodifiableList(fusion);
+		return true;
 	}
 
 	/**
@@ -138,18 +152,33 @@ final class Segments
 	}
 
 	/**
-	 * Splits the given range into segments.
+	 * Splits the given range into segments. The canonical segments of the
+	 * library's own {@code Range} implementations are returned as they are,
+	 * without being copied.
 	 *
 	 * @param <E> the type of the elements in the given range.
 	 * @param range the range to split.
 	 *
-	 * @return the range's segments.
+	 * @return the range's canonical segments as an unmodifiable
+	 *	{@code List}.
 	 *
 	 * @throws NullPointerException if {@code range} is {@code null}.
 	 */
 	static <E extends Comparable<? super E>>
 		List<Segment<E>> split(Range<? extends E> range)
 	{
+		if (range instanceof SimpleRange) {
+			return ((SimpleRange<E>) range).segments();
+		}
+		if (range instanceof SimpleInterval) {
+			return ((SimpleInterval<E>) range).segments();
+		}
+		if (range instanceof PersistentRange) {
+			return ((PersistentRange<E>) range).segments();
+		}
+		if (range == Ranges.EMPTY_RANGE) {
+			return Collections.emptyList();
+		}
 		List<Segment<E>> segments = new ArrayList<Segment<E>>();
 		for (Interval<? extends E> interval : range.split()) {
 			if (interval.isEmpty()) {
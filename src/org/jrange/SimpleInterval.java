@@ -82,7 +82,7 @@ public final class SimpleInterval<E extends Comparable<? super E>>
 	}
 
 	private final Segment<E> segment;
-	private final Range<E> range;
+	private final SimpleRange<E> range;
 
 	private SimpleInterval(Segment<E> segment)
 	{
@@ -90,6 +90,16 @@ public final class SimpleInterval<E extends Comparable<? super E>>
 		this.range = new SimpleRange<E>(Arrays.asList(this.segment));
 	}
 
+	/**
+	 * Returns the canonical segments of this interval.
+	 *
+	 * @return this interval's segments as an unmodifiable {@code List}.
+	 */
+	List<Segment<E>> segments()
+	{
+		return range.segments();
+	}
+
 	@Override
 	public Bound<E> lowerBound()
 	{
@@ -229,4 +239,22 @@ public final class SimpleInterval<E extends Comparable<? super E>>
 	{
 		return this.range.sequence(sequencer);
 	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (o == this) {
+			return true;
+		}
+		if (o instanceof SimpleInterval) {
+			return range.equals(((SimpleInterval<E>) o).range);
+		}
+		return range.equals(o);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return range.hashCode();
+	}
 }
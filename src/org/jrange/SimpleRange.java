@@ -19,6 +19,7 @@ package org.jrange;
 import static org.jrange.SimpleInterval.from;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -32,7 +33,8 @@ import java.util.List;
 final class SimpleRange<E extends Comparable<? super E>>
 	extends AbstractRange<E>
 {
-	private final List<Segment<E>> segments;
+	private final Segment<E>[] segments;
+	private int hash;
 
 	/**
 	 * Creates a new {@code SimpleRange} from the given {@code Segment}s.
@@ -41,21 +43,52 @@ final class SimpleRange<E extends Comparable<? super E>>
 	 */
 	SimpleRange(List<Segment<E>> segments)
 	{
-		this.segments = Segments.canonicalize(segments);
+		List<Segment<E>> canonical = Segments.canonicalize(segments);
+		int size = canonical.size();
+		this.segments = canonical.toArray(new Segment[size]);
+	}
+
+	/**
+	 * Creates a new {@code SimpleRange} from the given segments, which
+	 * must already be canonical (sorted, disjoint and non-empty).
+	 *
+	 * @param segments the canonical segments constituing the range.
+	 */
+	SimpleRange(Segment<E>[] segments)
+	{
+		this.segments = segments;
+	}
+
+	/**
+	 * Returns the canonical segments of this range.
+	 *
+	 * @return this range's segments as an unmodifiable {@code List}.
+	 */
+	List<Segment<E>> segments()
+	{
+		return Collections.unmodifiableList(Arrays.asList(segments));
 	}
 
 	@Override
 	public boolean isEmpty()
 	{
-		return segments.isEmpty();
+		return segments.length == 0;
 	}
 
 	@Override
 	public boolean contains(E value)
 	{
 		Parameters.checkNotNull(value);
-		for (Segment<E> i : segments) {
-			if (i.contains(value)) {
+		int low = 0;
+		int high = segments.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = segments[mid].locate(value);
+			if (cmp < 0) {
+				high = mid - 1;
+			} else if (cmp > 0) {
+				low = mid + 1;
+			} else {
 				return true;
 			}
 		}
@@ -68,15 +101,13 @@ final class SimpleRange<E extends Comparable<? super E>>
 		if (isEmpty()) {
 			return range.isEmpty();
 		}
-		for (Segment<E> i : Segments.split(range)) {
-			boolean contains = false;
-			for (Segment<E> j : segments) {
-				if (j.includes(i)) {
-					contains = true;
-					break;
-				}
+		int i = 0;
+		int n = segments.length;
+		for (Segment<E> segment : Segments.split(range)) {
+			while (i < n && segments[i].precedes(segment)) {
+				i++;
 			}
-			if (!contains) {
+			if (i == n || !segments[i].includes(segment)) {
 				return false;
 			}
 		}
@@ -87,11 +118,19 @@ final class SimpleRange<E extends Comparable<? super E>>
 	public boolean intersects(Range<? extends E> range)
 	{
 		Parameters.checkNotNull(range);
-		for (Segment<E> i : segments) {
-			for (Segment<E> j : Segments.split(range)) {
-				if (i.intersects(j)) {
-					return true;
-				}
+		List<Segment<E>> others = Segments.split(range);
+		int i = 0;
+		int j = 0;
+		while (i < segments.length && j < others.size()) {
+			Segment<E> segment = segments[i];
+			Segment<E> other = others.get(j);
+			if (segment.intersects(other)) {
+				return true;
+			}
+			if (segment.compareUpperBoundTo(other) < 0) {
+				i++;
+			} else {
+				j++;
 			}
 		}
 		return false;
@@ -101,22 +140,31 @@ final class SimpleRange<E extends Comparable<? super E>>
 	public Range<E> intersection(Range<? extends E> range)
 	{
 		Parameters.checkNotNull(range);
+		List<Segment<E>> others = Segments.split(range);
 		List<Segment<E>> res = new ArrayList<Segment<E>>();
-		for (Segment<E> i : segments) {
-			for (Segment<E> j : Segments.split(range)) {
-				Segment<E> segment = i.intersection(j);
-				if (segment != null) {
-					res.add(segment);
-				}
+		int i = 0;
+		int j = 0;
+		while (i < segments.length && j < others.size()) {
+			Segment<E> segment = segments[i];
+			Segment<E> other = others.get(j);
+			Segment<E> intersection = segment.intersection(other);
+			if (intersection != null) {
+				res.add(intersection);
+			}
+			if (segment.compareUpperBoundTo(other) < 0) {
+				i++;
+			} else {
+				j++;
 			}
 		}
-		return new SimpleRange<E>(res);
+		return new SimpleRange<E>(res.toArray(new Segment[res.size()]));
 	}
 
 	@Override
 	public Range<E> union(Range<? extends E> range)
 	{
-		List<Segment<E>> res = new ArrayList<Segment<E>>(segments);
+		List<Segment<E>> res = new ArrayList<Segment<E>>();
+		res.addAll(Arrays.asList(segments));
 		res.addAll(Segments.split(range));
 		return new SimpleRange<E>(res);
 	}
@@ -127,18 +175,39 @@ final class SimpleRange<E extends Comparable<? super E>>
 		if (range.isEmpty()) {
 			return this;
 		}
-		List<Segment<E>> res = new ArrayList<Segment<E>>(segments);
-		for (Segment<E> i : segments) {
-			for (Segment<E> j : Segments.split(range)) {
-				if (i.intersects(j)) {
-					res.remove(i);
-					res.addAll(i.subtraction(j));
-					Range<E> r = new SimpleRange<E>(res);
-					return r.subtraction(range);
+		List<Segment<E>> others = Segments.split(range);
+		List<Segment<E>> res = new ArrayList<Segment<E>>();
+		int j = 0;
+		for (Segment<E> segment : segments) {
+			Segment<E> remainder = segment;
+			while (remainder != null && j < others.size()) {
+				Segment<E> other = others.get(j);
+				if (other.precedes(remainder)) {
+					j++;
+				} else if (remainder.precedes(other)) {
+					break;
+				} else {
+					Segment<E> rest = null;
+					List<Segment<E>> pieces;
+					pieces = remainder.subtraction(other);
+					for (Segment<E> piece : pieces) {
+						if (piece.precedes(other)) {
+							res.add(piece);
+						} else {
+							rest = piece;
+						}
+					}
+					if (rest != null) {
+						j++;
+					}
+					remainder = rest;
 				}
 			}
+			if (remainder != null) {
+				res.add(remainder);
+			}
 		}
-		return new SimpleRange<E>(res);
+		return new SimpleRange<E>(res.toArray(new Segment[res.size()]));
 	}
 
 	@Override
@@ -160,6 +229,36 @@ final class SimpleRange<E extends Comparable<? super E>>
 	@Override
 	public Sequence<E> sequence(Sequencer<E> sequencer)
 	{
-		return new LazySequence<E>(segments, sequencer);
+		return new LazySequence<E>(Arrays.asList(segments), sequencer);
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (o == this) {
+			return true;
+		}
+		if (o instanceof SimpleInterval) {
+			return o.equals(this);
+		}
+		if (!(o instanceof SimpleRange)) {
+			return super.equals(o);
+		}
+		final SimpleRange<E> range = (SimpleRange<E>) o;
+		if (hash != 0 && range.hash != 0 && hash != range.hash) {
+			return false;
+		}
+		return Arrays.equals(segments, range.segments);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int h = hash;
+		if (h == 0) {
+			h = super.hashCode();
+			hash = h;
+		}
+		return h;
 	}
 }
@@ -0,0 +1,101 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import static junit.framework.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * {@code AbstractSequencer} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class AbstractSequencerTest
+{
+	private static final class DoublingSequencer
+		extends AbstractSequencer<Integer>
+	{
+		DoublingSequencer()
+		{
+			/* ... */
+		}
+
+		@Override
+		public Integer next(Integer current)
+		{
+			return current * 2;
+		}
+	}
+
+	@Test
+	public void testAdvance()
+	{
+		AbstractSequencer<Integer> sequencer = new DoublingSequencer();
+
+		assertEquals(Integer.valueOf(3), sequencer.advance(3, 0));
+		assertEquals(Integer.valueOf(1024), sequencer.advance(1, 10));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAdvanceWithNegativeN()
+	{
+		new DoublingSequencer().advance(1, -1);
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testAdvanceWithNull()
+	{
+		new DoublingSequencer().advance(null, 1);
+	}
+
+	@Test
+	public void testDistance()
+	{
+		AbstractSequencer<Integer> sequencer = new DoublingSequencer();
+
+		assertEquals(0, sequencer.distance(3, 3));
+		assertEquals(0, sequencer.distance(3, 5));
+		assertEquals(10, sequencer.distance(1, 1024));
+		assertEquals(10, sequencer.distance(1, 2047));
+		assertEquals(30, sequencer.distance(1, Integer.MAX_VALUE));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testDistanceBackwards()
+	{
+		new DoublingSequencer().distance(2, 1);
+	}
+
+	@Test
+	public void testWrap()
+	{
+		AbstractSequencer<Integer> sequencer = new DoublingSequencer();
+		assertSame(sequencer, AbstractSequencer.wrap(sequencer));
+
+		sequencer = AbstractSequencer.wrap(new Sequencer<Integer>()
+		{
+			@Override
+			public Integer next(Integer current)
+			{
+				return current + 3;
+			}
+		});
+		assertEquals(Integer.valueOf(31), sequencer.advance(1, 10));
+		assertEquals(3, sequencer.distance(1, 11));
+	}
+}
@@ -0,0 +1,288 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+
+package org.jrange;
+
+import static org.jrange.SimpleInterval.from;
+import static junit.framework.Assert.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@code CompressedIntRange} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class CompressedIntRangeTest
+{
+	/* The tested values are in [-OFFSET, OFFSET[, 4 chunks of 2^16. */
+	private static final int OFFSET = 1 << 17;
+
+	@Test
+	public void testIsEmpty()
+	{
+		assertTrue(CompressedIntRange.empty().isEmpty());
+		assertTrue(CompressedIntRange.closed(5, 4).isEmpty());
+		assertTrue(CompressedIntRange.of().isEmpty());
+		assertFalse(CompressedIntRange.closed(5, 5).isEmpty());
+		assertFalse(CompressedIntRange.of(-1).isEmpty());
+	}
+
+	@Test
+	public void testContains()
+	{
+		CompressedIntRange range = CompressedIntRange.closed(-3, 70000)
+			.union(CompressedIntRange.of(100000, 100002));
+
+		assertFalse(range.contains(-4));
+		assertTrue(range.contains(-3));
+		assertTrue(range.contains(65535));
+		assertTrue(range.contains(65536));
+		assertTrue(range.contains(70000));
+		assertFalse(range.contains(70001));
+		assertTrue(range.contains(100000));
+		assertFalse(range.contains(100001));
+		assertTrue(range.contains(100002));
+		assertFalse(CompressedIntRange.empty().contains(0));
+	}
+
+	@Test
+	public void testCardinality()
+	{
+		assertEquals(0, CompressedIntRange.empty().cardinality());
+		assertEquals(3, CompressedIntRange.of(7, 3, 7, 5)
+			.cardinality());
+		assertEquals(1L << 32, CompressedIntRange.closed(
+			Integer.MIN_VALUE, Integer.MAX_VALUE).cardinality());
+	}
+
+	@Test
+	public void testValueOf()
+	{
+		Range<Integer> range = from(Bound.opened(0)).to(Bound.opened(5))
+			.union(from(Bound.closed(5)).to(Bound.closed(9)))
+			.union(closed(-70000, -65536));
+		Range<Integer> head = from(Bound.closed(Integer.MIN_VALUE))
+			.to(Bound.opened(1));
+
+		assertEquals(CompressedIntRange.closed(1, 9).union(
+			CompressedIntRange.closed(-70000, -65536)),
+			CompressedIntRange.valueOf(range));
+		assertEquals(CompressedIntRange.closed(Integer.MIN_VALUE, 0),
+			CompressedIntRange.valueOf(head));
+		assertTrue(CompressedIntRange.valueOf(from(Bound.opened(0))
+			.to(Bound.opened(1))).isEmpty());
+	}
+
+	@Test
+	public void testToRange()
+	{
+		CompressedIntRange range = CompressedIntRange.closed(0, 70000)
+			.union(CompressedIntRange.of(-1, 70002));
+
+		assertEquals(closed(-1, 70000).union(closed(70002, 70002)),
+			range.toRange());
+		assertTrue(CompressedIntRange.empty().toRange().isEmpty());
+		assertEquals(range,
+			CompressedIntRange.valueOf(range.toRange()));
+	}
+
+	@Test
+	public void testToString()
+	{
+		assertEquals("[1, 3] U [5, 5]",
+			CompressedIntRange.of(1, 2, 3, 5).toString());
+	}
+
+	@Test
+	public void testAgainstModel()
+	{
+		Random random = new Random(42);
+		for (int n = 0; n < 60; n++) {
+			BitSet m1 = randomSet(random);
+			BitSet m2 = randomSet(random);
+			CompressedIntRange r1 = valueOf(m1);
+			CompressedIntRange r2 = valueOf(m2);
+			assertModel(m1, r1);
+			assertModel(m2, r2);
+
+			BitSet union = (BitSet) m1.clone();
+			union.or(m2);
+			assertModel(union, r1.union(r2));
+			BitSet intersection = (BitSet) m1.clone();
+			intersection.and(m2);
+			assertModel(intersection, r1.intersection(r2));
+			BitSet subtraction = (BitSet) m1.clone();
+			subtraction.andNot(m2);
+			assertModel(subtraction, r1.subtraction(r2));
+
+			assertEquals(m1.intersects(m2), r1.intersects(r2));
+			BitSet rest = (BitSet) m2.clone();
+			rest.andNot(m1);
+			assertEquals(rest.isEmpty(), r1.includes(r2));
+			assertTrue(r1.union(r2).includes(r1));
+			assertTrue(r1.includes(r1.intersection(r2)));
+		}
+	}
+
+	@Test
+	public void testEquals()
+	{
+		CompressedIntRange range1 = CompressedIntRange.closed(0, 5000)
+			.union(CompressedIntRange.of(70000, 70002));
+		CompressedIntRange range2 = CompressedIntRange
+			.of(70002, 70000)
+			.union(CompressedIntRange.closed(0, 5000));
+		CompressedIntRange range3 = CompressedIntRange
+			.closed(0, 70002)
+			.subtraction(CompressedIntRange.closed(5001, 69999))
+			.subtraction(CompressedIntRange.of(70001));
+
+		assertEquals(range1, range2);
+		assertEquals(range1, range3);
+		assertEquals(range1.hashCode(), range2.hashCode());
+		assertEquals(range1.hashCode(), range3.hashCode());
+		assertFalse(range1.equals(CompressedIntRange.closed(0, 5000)));
+		assertFalse(range1.equals(null));
+	}
+
+	@Test
+	public void testEqualsAcrossContainers()
+	{
+		Random random = new Random(42);
+		int[] values = new int[8000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextInt(1 << 16);
+		}
+		CompressedIntRange sparse = CompressedIntRange.of(values);
+		CompressedIntRange full = CompressedIntRange.closed(0, 65535);
+		CompressedIntRange holes = full.subtraction(sparse);
+
+		assertEquals(sparse, full.subtraction(holes));
+		assertEquals(full, holes.union(sparse));
+		assertEquals(CompressedIntRange.closed(0, 99),
+			full.subtraction(
+				CompressedIntRange.closed(100, 65535)));
+		assertEquals(CompressedIntRange.of(0, 2, 4),
+			CompressedIntRange.closed(0, 4).subtraction(
+				CompressedIntRange.of(1, 3)));
+		assertTrue(full.subtraction(sparse).subtraction(holes)
+			.isEmpty());
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testUnionWithNull()
+	{
+		CompressedIntRange.closed(0, 5).union(null);
+	}
+
+	private static void assertModel(BitSet expected,
+		CompressedIntRange range)
+	{
+		assertEquals(expected.cardinality(), range.cardinality());
+		assertEquals(valueOf(expected), range);
+		assertEquals(toRange(expected), range.toRange());
+		for (int i = -OFFSET; i < OFFSET; i += 97) {
+			boolean contained = expected.get(i + OFFSET);
+			assertEquals(contained, range.contains(i));
+		}
+	}
+
+	/* Sets the chunks of the model as sparse, dense or made of runs. */
+	private static BitSet randomSet(Random random)
+	{
+		BitSet set = new BitSet(2 * OFFSET);
+		for (int chunk = 0; chunk < 4; chunk++) {
+			int base = chunk << 16;
+			switch (random.nextInt(5)) {
+				case 0:
+					break;
+				case 1:
+					setSparse(set, base, random);
+					break;
+				case 2:
+					setDense(set, base, random);
+					break;
+				default:
+					setRuns(set, base, random);
+			}
+		}
+		return set;
+	}
+
+	private static void setSparse(BitSet set, int base, Random random)
+	{
+		int n = random.nextInt(6000);
+		for (int i = 0; i < n; i++) {
+			set.set(base + random.nextInt(1 << 16));
+		}
+	}
+
+	private static void setDense(BitSet set, int base, Random random)
+	{
+		for (int i = 0; i < 1 << 16; i++) {
+			if (random.nextInt(3) > 0) {
+				set.set(base + i);
+			}
+		}
+	}
+
+	private static void setRuns(BitSet set, int base, Random random)
+	{
+		int runs = 1 + random.nextInt(3000);
+		for (int i = 0; i < runs; i++) {
+			int start = base + random.nextInt(1 << 16);
+			int end = start + random.nextInt(200);
+			set.set(start, Math.min(end, 2 * OFFSET));
+		}
+	}
+
+	private static Range<Integer> closed(int lower, int upper)
+	{
+		return from(Bound.closed(lower)).to(Bound.closed(upper));
+	}
+
+	private static CompressedIntRange valueOf(BitSet set)
+	{
+		int[] values = new int[set.cardinality()];
+		int n = 0;
+		for (int i = set.nextSetBit(0); i >= 0;
+			i = set.nextSetBit(i + 1)) {
+			values[n++] = i - OFFSET;
+		}
+		return CompressedIntRange.of(values);
+	}
+
+	private static Range<Integer> toRange(BitSet set)
+	{
+		List<Segment<Integer>> segments;
+		segments = new ArrayList<Segment<Integer>>();
+		int start = set.nextSetBit(0);
+		while (start >= 0) {
+			int end = set.nextClearBit(start);
+			segments.add(new Segment<Integer>(start - OFFSET, true,
+				end - 1 - OFFSET, true));
+			start = set.nextSetBit(end);
+		}
+		return new SimpleRange<Integer>(segments);
+	}
+}
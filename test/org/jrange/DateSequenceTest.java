@@ -0,0 +1,115 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import static org.jrange.SimpleInterval.from;
+import static junit.framework.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * {@code DateSequence} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class DateSequenceTest
+{
+	@Test
+	public void testIterator()
+	{
+		Range<Date> range;
+		range = from(Bound.opened(new Date(-2000L)))
+			.to(Bound.closed(new Date(3000L)))
+			.union(from(Bound.closed(new Date(5000L)))
+				.to(Bound.opened(new Date(9000L))));
+		DateSequencer sequencer;
+		sequencer = new DateSequencer(2, TimeUnit.SECONDS);
+		DateSequence sequence = Ranges.sequence(range, sequencer);
+		List<Date> sequenced = new ArrayList<Date>();
+		for (Date date : sequence) {
+			sequenced.add(date);
+		}
+		List<Date> expected = Arrays.asList(new Date(0L),
+			new Date(2000L), new Date(5000L), new Date(7000L));
+
+		assertEquals(expected, sequenced);
+		assertEquals(range.sequence(sequencer), sequence);
+		assertEquals(sequence, range.sequence(sequencer));
+		assertEquals(range.sequence(sequencer).hashCode(),
+			sequence.hashCode());
+	}
+
+	@Test
+	public void testMillis()
+	{
+		Range<Date> range;
+		long year = TimeUnit.DAYS.toMillis(365);
+		range = from(Bound.closed(new Date(0L)))
+			.to(Bound.opened(new Date(year)));
+		DateSequencer sequencer;
+		sequencer = new DateSequencer(1, TimeUnit.MINUTES);
+		LongIterator i = Ranges.sequence(range, sequencer)
+			.millis().iterator();
+		long n = 0;
+		long last = -1;
+		while (i.hasNext()) {
+			long millis = i.nextLong();
+			assertTrue(millis > last);
+			last = millis;
+			n++;
+		}
+
+		assertEquals(TimeUnit.DAYS.toMinutes(365), n);
+		assertEquals(year - 60000L, last);
+	}
+
+	@Test
+	public void testRandomAccess()
+	{
+		Range<Date> range;
+		range = from(Bound.closed(new Date(0L)))
+			.to(Bound.opened(new Date(10000L)));
+		DateSequence sequence;
+		sequence = Ranges.sequence(range, new DateSequencer(1000L));
+
+		assertEquals(10, sequence.size());
+		assertEquals(new Date(3000L), sequence.get(3));
+		assertEquals(new Date(9000L), sequence.skip(9).get(0));
+		assertEquals(6000L, sequence.skip(5).millis().getLong(1));
+		assertEquals(new Date(2000L), sequence.limit(3).get(2));
+		assertEquals(3, sequence.limit(3).size());
+
+		List<DateSequence> parts = sequence.split();
+		assertEquals(5, parts.get(0).size());
+		assertEquals(new Date(5000L), parts.get(1).get(0));
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testSequenceByNull()
+	{
+		Range<Date> range;
+		range = from(Bound.closed(new Date(0L)))
+			.to(Bound.closed(new Date(1L)));
+		Ranges.sequence(range, (DateSequencer) null);
+	}
+}
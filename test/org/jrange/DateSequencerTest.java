@@ -63,6 +63,21 @@ public final class DateSequencerTest
 		assertEquals(next, sequencer.next(now));
 	}
 
+	@Test
+	public void testAdvanceAndDistance()
+	{
+		DateSequencer sequencer = new DateSequencer(1, TimeUnit.HOURS);
+		Date date = new Date();
+		Date next = date;
+		for (int n = 0; n < 100; n++) {
+			assertEquals(next, sequencer.advance(date, n));
+			assertEquals(n, sequencer.distance(date, next));
+			next = sequencer.next(next);
+		}
+		Date later = new Date(date.getTime() + 3600000L * 5 - 1);
+		assertEquals(4, sequencer.distance(date, later));
+	}
+
 	@Test(expected=NullPointerException.class)
 	public void testNextWithNull()
 	{
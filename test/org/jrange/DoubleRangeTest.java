@@ -0,0 +1,155 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import static org.jrange.SimpleInterval.from;
+import static junit.framework.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@code DoubleRange} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class DoubleRangeTest
+{
+	@Test
+	public void testContains()
+	{
+		DoubleRange range;
+		range = DoubleRange.interval(-1.5, true, 0.0, false)
+			.union(DoubleRange.closed(1.0,
+			Double.POSITIVE_INFINITY));
+
+		assertTrue(range.contains(-1.5));
+		assertFalse(range.contains(0.0));
+		assertFalse(range.contains(-0.0));
+		assertFalse(range.contains(0.5));
+		assertTrue(range.contains(1.0));
+		assertTrue(range.contains(Double.MAX_VALUE));
+		assertTrue(range.contains(Double.POSITIVE_INFINITY));
+		assertFalse(range.contains(Double.NaN));
+	}
+
+	@Test
+	public void testSignedZeros()
+	{
+		DoubleRange range1 = DoubleRange.closed(-0.0, 1.0);
+		DoubleRange range2 = DoubleRange.closed(0.0, 1.0);
+
+		assertEquals(range1, range2);
+		assertEquals(range1.hashCode(), range2.hashCode());
+		assertTrue(range2.contains(-0.0));
+		assertEquals(DoubleRange.closed(-1.0, 1.0),
+			DoubleRange.interval(-1.0, true, -0.0, true)
+			.union(DoubleRange.interval(0.0, false, 1.0, true)));
+		assertTrue(DoubleRange.opened(-0.0, 0.0).isEmpty());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNaNBound()
+	{
+		DoubleRange.closed(0.0, Double.NaN);
+	}
+
+	@Test
+	public void testCoalesce()
+	{
+		DoubleRange range = DoubleRange.closed(0.0, 1.0)
+			.union(DoubleRange.closed(Math.nextUp(1.0), 2.0))
+			.union(DoubleRange.interval(2.0, false, 3.0, false))
+			.union(DoubleRange.interval(3.0, false, 4.0, true));
+
+		assertFalse(range.equals(range.coalesce()));
+		assertEquals(DoubleRange.interval(0.0, true, 3.0, false)
+			.union(DoubleRange.interval(3.0, false, 4.0, true)),
+			range.coalesce());
+		assertTrue(range.contains(Math.nextUp(1.0)));
+		assertFalse(range.coalesce().contains(3.0));
+		DoubleRange coalesced = range.coalesce();
+		assertSame(coalesced, coalesced.coalesce());
+	}
+
+	@Test
+	public void testConversions()
+	{
+		Range<Double> range;
+		range = from(Bound.closed(-1.0)).to(Bound.closed(-0.0))
+			.union(from(Bound.closed(0.0)).to(Bound.opened(2.5)));
+		DoubleRange converted = DoubleRange.valueOf(range);
+
+		assertEquals(2, range.split().size());
+		assertEquals(DoubleRange.interval(-1.0, true, 2.5, false),
+			converted);
+		assertEquals(from(Bound.closed(-1.0)).to(Bound.opened(2.5)),
+			converted.toRange());
+	}
+
+	@Test
+	public void testSequence()
+	{
+		DoubleRange range = DoubleRange.closed(0.0, 2.0)
+			.union(DoubleRange.opened(2.5, 4.0));
+		DoubleSequencer sequencer = new DoubleSequencer(0.5);
+
+		assertEquals(Ranges.sequence(range.toRange(), sequencer),
+			range.sequence(sequencer));
+		assertEquals(0L,
+			DoubleRange.empty().sequence(sequencer).size());
+	}
+
+	@Test
+	public void testAgainstRange()
+	{
+		Random random = new Random(42);
+		for (int n = 0; n < 200; n++) {
+			DoubleRange r1 = randomRange(random);
+			DoubleRange r2 = randomRange(random);
+			Range<Double> s1 = r1.toRange();
+			Range<Double> s2 = r2.toRange();
+
+			assertEquals(s1.union(s2), r1.union(r2).toRange());
+			assertEquals(s1.intersection(s2),
+				r1.intersection(r2).toRange());
+			assertEquals(s1.subtraction(s2),
+				r1.subtraction(r2).toRange());
+			assertEquals(s1.intersects(s2), r1.intersects(r2));
+			assertEquals(s1.includes(s2), r1.includes(r2));
+			for (double d = -1.0; d < 42.0; d += 0.5) {
+				assertEquals(s1.contains(d), r1.contains(d));
+			}
+		}
+	}
+
+	private static DoubleRange randomRange(Random random)
+	{
+		DoubleRange range = DoubleRange.empty();
+		int n = random.nextInt(6);
+		for (int i = 0; i < n; i++) {
+			double lower = random.nextInt(40);
+			double upper = lower + random.nextInt(8);
+			boolean lowerClosed = random.nextBoolean();
+			boolean upperClosed = random.nextBoolean();
+			range = range.union(DoubleRange.interval(lower,
+				lowerClosed, upper, upperClosed));
+		}
+		return range;
+	}
+}
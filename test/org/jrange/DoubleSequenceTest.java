@@ -0,0 +1,179 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import static org.jrange.SimpleInterval.from;
+import static junit.framework.Assert.*;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+/**
+ * {@code DoubleSequence} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class DoubleSequenceTest
+{
+	@Test
+	public void testIterator()
+	{
+		Range<Double> range;
+		range = from(Bound.opened(-0.2)).to(Bound.closed(0.3))
+			.union(from(Bound.closed(0.5)).to(Bound.opened(0.9)))
+			.union(from(Bound.closed(1.1)).to(Bound.closed(1.4)));
+		DoubleSequencer sequencer = new DoubleSequencer(0.2);
+		DoubleSequence sequence = Ranges.sequence(range, sequencer);
+		List<Double> sequenced = new ArrayList<Double>();
+		for (DoubleIterator i = sequence.iterator(); i.hasNext();) {
+			sequenced.add(i.nextDouble());
+		}
+		List<Double> expected = Arrays.asList(0.0, 0.2, 0.5, 0.7, 1.1,
+			1.3);
+
+		assertEquals(expected, sequenced);
+		assertEquals(range.sequence(sequencer), sequence);
+		assertEquals(sequence, range.sequence(sequencer));
+	}
+
+	@Test
+	public void testEquals()
+	{
+		Range<Double> r1;
+		r1 = from(Bound.closed(0.0)).to(Bound.closed(1.0));
+		Range<Double> r2;
+		r2 = from(Bound.closed(0.0)).to(Bound.closed(0.5))
+			.union(from(Bound.opened(0.5)).to(Bound.closed(1.0)));
+		Range<Double> r3;
+		r3 = from(Bound.opened(-0.25)).to(Bound.opened(1.1));
+		DoubleSequencer sequencer = new DoubleSequencer(0.25);
+		DoubleSequence s1 = Ranges.sequence(r1, sequencer);
+		DoubleSequence s2 = Ranges.sequence(r2, sequencer);
+		DoubleSequence s3 = Ranges.sequence(r3, sequencer);
+
+		assertEquals(s1, s2);
+		assertEquals(s2, s1);
+		assertEquals(s1, s3);
+		assertEquals(s1.hashCode(), s2.hashCode());
+		assertEquals(s1.hashCode(), s3.hashCode());
+		assertFalse(s1.equals(s2.limit(4)));
+		assertFalse(s1.equals(Ranges.sequence(r1,
+			new DoubleSequencer(0.5))));
+	}
+
+	@Test
+	public void testManyElements()
+	{
+		Range<Double> range;
+		range = from(Bound.closed(0.0)).to(Bound.opened(1000.0));
+		DoubleSequencer sequencer = new DoubleSequencer(0.01);
+		DoubleIterator i = Ranges.sequence(range, sequencer).iterator();
+		int n = 0;
+		double last = 0.0;
+		while (i.hasNext()) {
+			last = i.nextDouble();
+			n++;
+		}
+
+		assertEquals(100000, n);
+		assertEquals(999.99, last);
+
+		double[] array = Ranges.sequence(range, sequencer).toArray();
+		assertEquals(100000, array.length);
+		assertEquals(0.07, array[7]);
+		assertEquals(999.99, array[99999]);
+
+		i = Ranges.sequence(range, sequencer).iterator();
+		DoubleBuffer buffer = DoubleBuffer.allocate(333);
+		n = 0;
+		while (i.fill(buffer) > 0) {
+			assertEquals(n / 100.0, buffer.get(0));
+			n += buffer.position();
+			buffer.clear();
+		}
+		assertEquals(100000, n);
+		assertEquals(range.sequence(sequencer),
+			Ranges.sequence(range, sequencer));
+	}
+
+	@Test
+	public void testRandomAccess()
+	{
+		Range<Double> range;
+		range = from(Bound.closed(0.0)).to(Bound.opened(1000.0))
+			.union(from(Bound.opened(2000.0))
+				.to(Bound.closed(3000.0)));
+		DoubleSequence sequence;
+		sequence = Ranges.sequence(range, new DoubleSequencer(0.01));
+
+		assertEquals(200000, sequence.size());
+		assertEquals(0.0, sequence.getDouble(0));
+		assertEquals(500.05, sequence.getDouble(50005));
+		assertEquals(2000.01, sequence.getDouble(100000));
+		assertEquals(3000.0, sequence.get(199999).doubleValue());
+		assertEquals(2000.02, sequence.skip(100001).getDouble(0));
+		assertEquals(1, sequence.skip(199999).size());
+		assertEquals(0, sequence.skip(200000).size());
+		assertEquals(999.99, sequence.limit(100000).getDouble(99999));
+		assertEquals(2000.03, sequence.limit(100003).getDouble(100002));
+
+		List<DoubleSequence> parts = sequence.split();
+		assertEquals(100000, parts.get(0).size());
+		assertEquals(2000.01, parts.get(1).getDouble(0));
+	}
+
+	@Test
+	public void testEmptySegments()
+	{
+		Range<Double> range;
+		range = from(Bound.opened(0.0)).to(Bound.opened(0.3))
+			.union(from(Bound.closed(1.0)).to(Bound.opened(1.1)))
+			.union(from(Bound.opened(2.0)).to(Bound.closed(2.2)));
+		DoubleSequence sequence;
+		sequence = Ranges.sequence(range, new DoubleSequencer(0.3));
+		List<Double> sequenced = new ArrayList<Double>();
+		for (Double d : sequence) {
+			sequenced.add(d);
+		}
+
+		assertEquals(Arrays.asList(1.0), sequenced);
+	}
+
+	@Test(expected=NoSuchElementException.class)
+	public void testEmptyRange()
+	{
+		Range<Double> range = Ranges.emptyRange();
+		DoubleIterator i;
+		i = Ranges.sequence(range, new DoubleSequencer(1.0)).iterator();
+
+		assertFalse(i.hasNext());
+		i.nextDouble();
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testSequenceByNull()
+	{
+		Range<Double> range;
+		range = from(Bound.closed(0.0)).to(Bound.closed(5.0));
+		Ranges.sequence(range, (DoubleSequencer) null);
+	}
+}
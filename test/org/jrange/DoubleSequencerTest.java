@@ -53,6 +53,45 @@ public final class DoubleSequencerTest
 		new DoubleSequencer(Utils.randomDouble()).next(null);
 	}
 
+	@Test
+	public void testAdvance()
+	{
+		double step = Math.rint(Utils.randomDouble() * 1000) / 1000;
+		DoubleSequencer sequencer = new DoubleSequencer(step);
+		double value = Math.rint(Utils.randomDouble() * 1000) / 1000;
+		Double next = value;
+		for (int n = 0; n < 100; n++) {
+			assertEquals(next.doubleValue(),
+				sequencer.advance(value, n));
+			next = sequencer.next(next);
+		}
+
+		sequencer = new DoubleSequencer(0.1);
+		assertEquals(0.3, sequencer.advance(0.0, 3));
+		assertEquals(1E15 + 0.3, sequencer.advance(1E15, 3));
+		assertEquals(-0.7, sequencer.advance(-1.0, 3));
+		assertEquals(1E8, sequencer.advance(0.0, 1000000000L));
+	}
+
+	@Test
+	public void testDistance()
+	{
+		DoubleSequencer sequencer = new DoubleSequencer(0.1);
+
+		assertEquals(Double.valueOf(0.3), sequencer.advance(0.0, 3));
+		assertEquals(3, sequencer.distance(0.0, 0.3));
+		assertEquals(2, sequencer.distance(0.0, 0.29999));
+		assertEquals(10000, sequencer.distance(-500.0, 500.0));
+		assertEquals(Long.MAX_VALUE, sequencer.distance(0.0,
+			Double.POSITIVE_INFINITY));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAdvanceWithNegativeN()
+	{
+		new DoubleSequencer(Utils.randomDouble()).advance(0.0, -1);
+	}
+
 	@Test
 	public void testToString()
 	{
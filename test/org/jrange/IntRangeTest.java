@@ -0,0 +1,222 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import static org.jrange.SimpleInterval.from;
+import static junit.framework.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@code IntRange} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class IntRangeTest
+{
+	@Test
+	public void testIsEmpty()
+	{
+		assertTrue(IntRange.empty().isEmpty());
+		assertTrue(IntRange.closed(5, 4).isEmpty());
+		assertTrue(IntRange.opened(5, 5).isEmpty());
+		assertTrue(IntRange.interval(5, true, 5, false).isEmpty());
+		assertFalse(IntRange.closed(5, 5).isEmpty());
+		assertFalse(IntRange.opened(5, 6).isEmpty());
+	}
+
+	@Test
+	public void testContains()
+	{
+		IntRange range = IntRange.interval(2, true, 12, false)
+			.union(IntRange.interval(15, false, 20, true));
+
+		assertFalse(range.contains(0));
+		assertTrue(range.contains(2));
+		assertTrue(range.contains(11));
+		assertFalse(range.contains(12));
+		assertFalse(range.contains(15));
+		assertTrue(range.contains(16));
+		assertTrue(range.contains(20));
+		assertFalse(range.contains(21));
+		assertFalse(IntRange.empty().contains(0));
+	}
+
+	@Test
+	public void testIncludes()
+	{
+		IntRange range1 = IntRange.closed(0, 10)
+			.union(IntRange.closed(20, 30));
+		IntRange range2 = IntRange.closed(2, 5)
+			.union(IntRange.opened(20, 30));
+
+		assertTrue(range1.includes(range2));
+		assertFalse(range2.includes(range1));
+		assertTrue(range1.includes(IntRange.empty()));
+		assertFalse(range1.includes(IntRange.closed(10, 20)));
+	}
+
+	@Test
+	public void testIntersects()
+	{
+		IntRange range = IntRange.closed(0, 10)
+			.union(IntRange.closed(20, 30));
+
+		assertTrue(range.intersects(IntRange.closed(10, 12)));
+		assertFalse(range.intersects(IntRange.opened(10, 20)));
+		assertFalse(range.intersects(IntRange.empty()));
+	}
+
+	@Test
+	public void testUnion()
+	{
+		IntRange range = IntRange.interval(0, true, 5, true)
+			.union(IntRange.interval(5, false, 10, false))
+			.union(IntRange.interval(10, false, 12, true));
+
+		assertEquals(IntRange.interval(0, true, 10, false)
+			.union(IntRange.interval(10, false, 12, true)), range);
+		assertEquals("[0, 10[ U ]10, 12]", range.toString());
+	}
+
+	@Test
+	public void testIntersection()
+	{
+		IntRange range1 = IntRange.closed(0, 10)
+			.union(IntRange.closed(20, 30));
+		IntRange range2 = IntRange.opened(5, 25);
+
+		assertEquals(IntRange.interval(5, false, 10, true)
+			.union(IntRange.interval(20, true, 25, false)),
+			range1.intersection(range2));
+	}
+
+	@Test
+	public void testSubtraction()
+	{
+		IntRange range1 = IntRange.closed(0, 20);
+		IntRange range2 = IntRange.closed(5, 5)
+			.union(IntRange.interval(10, false, 15, true));
+
+		assertEquals(IntRange.interval(0, true, 5, false)
+			.union(IntRange.interval(5, false, 10, true))
+			.union(IntRange.interval(15, false, 20, true)),
+			range1.subtraction(range2));
+		assertTrue(range1.subtraction(range1).isEmpty());
+	}
+
+	@Test
+	public void testSplit()
+	{
+		IntRange interval1 = IntRange.closed(0, 5);
+		IntRange interval2 = IntRange.opened(7, 9);
+		IntRange range = interval2.union(interval1);
+
+		assertEquals(Arrays.asList(interval1, interval2),
+			range.split());
+		assertEquals(Arrays.asList(IntRange.empty()),
+			IntRange.empty().split());
+	}
+
+	@Test
+	public void testConversions()
+	{
+		Range<Integer> range;
+		range = from(Bound.opened(0)).to(Bound.closed(15))
+			.union(from(Bound.closed(20)).to(Bound.opened(25)));
+		IntRange converted = IntRange.valueOf(range);
+
+		assertEquals(range.toString(), converted.toString());
+		assertEquals(range, converted.toRange());
+		assertEquals(IntRange.empty(),
+			IntRange.valueOf(Ranges.<Integer>emptyRange()));
+		assertTrue(IntRange.empty().toRange().isEmpty());
+	}
+
+	@Test
+	public void testSequence()
+	{
+		IntRange range = IntRange.opened(0, 7)
+			.union(IntRange.closed(10, 15));
+		IntegerSequencer sequencer = new IntegerSequencer(2);
+
+		assertEquals(Ranges.sequence(range.toRange(), sequencer),
+			range.sequence(sequencer));
+		assertEquals(0L, IntRange.empty().sequence(sequencer).size());
+	}
+
+	@Test
+	public void testAgainstRange()
+	{
+		Random random = new Random(42);
+		for (int n = 0; n < 200; n++) {
+			IntRange r1 = randomRange(random);
+			IntRange r2 = randomRange(random);
+			Range<Integer> s1 = r1.toRange();
+			Range<Integer> s2 = r2.toRange();
+
+			assertEquals(s1.union(s2), r1.union(r2).toRange());
+			assertEquals(s1.intersection(s2),
+				r1.intersection(r2).toRange());
+			assertEquals(s1.subtraction(s2),
+				r1.subtraction(r2).toRange());
+			assertEquals(s1.intersects(s2), r1.intersects(r2));
+			assertEquals(s1.includes(s2), r1.includes(r2));
+			for (int i = -1; i < 42; i++) {
+				assertEquals(s1.contains(i), r1.contains(i));
+			}
+		}
+	}
+
+	@Test
+	public void testEquals()
+	{
+		IntRange range1 = IntRange.closed(0, 5)
+			.union(IntRange.opened(7, 9));
+		IntRange range2 = IntRange.opened(7, 9)
+			.union(IntRange.closed(0, 5));
+
+		assertEquals(range1, range2);
+		assertEquals(range1.hashCode(), range2.hashCode());
+		assertFalse(range1.equals(IntRange.closed(0, 5)));
+		assertFalse(range1.equals(null));
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testUnionWithNull()
+	{
+		IntRange.closed(0, 5).union(null);
+	}
+
+	private static IntRange randomRange(Random random)
+	{
+		IntRange range = IntRange.empty();
+		int n = random.nextInt(6);
+		for (int i = 0; i < n; i++) {
+			int lower = random.nextInt(40);
+			int upper = lower + random.nextInt(8);
+			boolean lowerClosed = random.nextBoolean();
+			boolean upperClosed = random.nextBoolean();
+			range = range.union(IntRange.interval(lower,
+				lowerClosed, upper, upperClosed));
+		}
+		return range;
+	}
+}
@@ -0,0 +1,364 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import static org.jrange.SimpleInterval.from;
+import static junit.framework.Assert.*;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@code IntSequence} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class IntSequenceTest
+{
+	@Test
+	public void testIterator()
+	{
+		Range<Integer> range;
+		range = from(Bound.opened(-2)).to(Bound.closed(3))
+			.union(from(Bound.closed(5)).to(Bound.opened(9)))
+			.union(from(Bound.closed(11)).to(Bound.closed(14)));
+		IntegerSequencer sequencer = new IntegerSequencer(2);
+		IntSequence sequence = Ranges.sequence(range, sequencer);
+		List<Integer> sequenced = new ArrayList<Integer>();
+		for (IntIterator i = sequence.iterator(); i.hasNext();) {
+			sequenced.add(i.nextInt());
+		}
+
+		assertEquals(Arrays.asList(0, 2, 5, 7, 11, 13), sequenced);
+		assertEquals(range.sequence(sequencer), sequence);
+		assertEquals(sequence, range.sequence(sequencer));
+		assertEquals(range.sequence(sequencer).hashCode(),
+			sequence.hashCode());
+	}
+
+	@Test
+	public void testRandomAccess()
+	{
+		Random random = new Random(42);
+		for (int n = 0; n < 100; n++) {
+			Range<Integer> range = Ranges.emptyRange();
+			for (int k = 0; k < 5; k++) {
+				int lower = random.nextInt(200) - 100;
+				int upper = lower + random.nextInt(30);
+				range = range.union(from(bound(lower, random))
+					.to(bound(upper, random)));
+			}
+			int step = random.nextInt(5) + 1;
+			IntegerSequencer sequencer = new IntegerSequencer(step);
+			IntSequence sequence;
+			sequence = Ranges.sequence(range, sequencer);
+			List<Integer> expected = new ArrayList<Integer>();
+			for (Interval<Integer> interval : range.split()) {
+				Bound<Integer> lower = interval.lowerBound();
+				int i = lower.value();
+				if (!lower.isClosed()) {
+					i += step;
+				}
+				for (; interval.contains(i); i += step) {
+					expected.add(i);
+				}
+			}
+			int size = expected.size();
+
+			assertEquals(size, sequence.size());
+			for (int i = 0; i < size; i++) {
+				assertEquals(expected.get(i), sequence.get(i));
+				assertEquals(expected.subList(i, size),
+					toList(sequence.skip(i)));
+				assertEquals(expected.subList(0, i),
+					toList(sequence.limit(i)));
+			}
+			assertEquals(0, sequence.skip(size).size());
+			assertEquals(expected, toList(sequence.limit(size)));
+			assertEquals(expected, splitAll(sequence));
+			assertEquals(expected, toList(sequence.toArray()));
+			assertEquals(expected, toList(fill(sequence, 7)));
+		}
+	}
+
+	@Test
+	public void testEquals()
+	{
+		Random random = new Random(42);
+		int equal = 0;
+		for (int n = 0; n < 500; n++) {
+			IntSequence sequence = randomSequence(random);
+			IntSequence other = randomSequence(random);
+			List<Integer> elements = toList(sequence);
+			Range<Integer> range = Ranges.emptyRange();
+			for (int e : elements) {
+				range = range.union(from(Bound.closed(e))
+					.to(Bound.closed(e)));
+			}
+			IntegerSequencer sequencer = new IntegerSequencer(1);
+			IntSequence same = Ranges.sequence(range, sequencer);
+			boolean expected = elements.equals(toList(other));
+			equal += expected ? 1 : 0;
+
+			assertEquals(sequence, same);
+			assertEquals(same, sequence);
+			assertEquals(sequence.hashCode(), same.hashCode());
+			assertEquals(range.sequence(sequencer).hashCode(),
+				same.hashCode());
+			assertEquals(sequence, range.sequence(sequencer));
+			assertEquals(expected, sequence.equals(other));
+			assertEquals(expected, other.equals(sequence));
+		}
+		assertTrue(equal > 0);
+	}
+
+	@Test(timeout=1000)
+	public void testEqualsHuge()
+	{
+		Range<Integer> r1;
+		r1 = from(Bound.closed(0)).to(Bound.closed(1 << 30));
+		Range<Integer> r2;
+		r2 = from(Bound.closed(0)).to(Bound.closed(5))
+			.union(from(Bound.closed(6)).to(Bound.closed(1 << 30)));
+		IntegerSequencer sequencer = new IntegerSequencer(1);
+		IntSequence s1 = Ranges.sequence(r1, sequencer);
+		IntSequence s2 = Ranges.sequence(r2, sequencer);
+		IntSequence s3 = Ranges.sequence(r1, new IntegerSequencer(2));
+
+		assertEquals(s1, s2);
+		assertEquals(s1.hashCode(), s2.hashCode());
+		assertFalse(s1.equals(s2.limit(s2.size() - 1)));
+		assertFalse(s1.equals(s3));
+		assertEquals(r1.sequence(sequencer), r2.sequence(sequencer));
+	}
+
+	@Test
+	public void testHashCode()
+	{
+		Range<Integer> range;
+		range = from(Bound.closed(Integer.MIN_VALUE))
+			.to(Bound.closed(Integer.MIN_VALUE + 100))
+			.union(from(Bound.opened(-50)).to(Bound.closed(50)))
+			.union(from(Bound.closed(Integer.MAX_VALUE - 100))
+			.to(Bound.closed(Integer.MAX_VALUE)));
+		for (int step = 1; step < 8; step++) {
+			IntegerSequencer sequencer = new IntegerSequencer(step);
+
+			assertEquals(range.sequence(sequencer).hashCode(),
+				Ranges.sequence(range, sequencer).hashCode());
+		}
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds()
+	{
+		Range<Integer> range;
+		range = from(Bound.closed(0)).to(Bound.opened(10));
+		IntSequence sequence;
+		sequence = Ranges.sequence(range, new IntegerSequencer(2));
+
+		assertEquals(8, sequence.getInt(4));
+		sequence.getInt(5);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSkipNegative()
+	{
+		Range<Integer> range;
+		range = from(Bound.closed(0)).to(Bound.opened(10));
+		Ranges.sequence(range, new IntegerSequencer(2)).skip(-1);
+	}
+
+	@Test
+	public void testEmptySegments()
+	{
+		Range<Integer> range;
+		range = from(Bound.opened(0)).to(Bound.opened(3))
+			.union(from(Bound.closed(10)).to(Bound.opened(11)))
+			.union(from(Bound.opened(20)).to(Bound.closed(22)));
+		IntSequence sequence;
+		sequence = Ranges.sequence(range, new IntegerSequencer(3));
+		List<Integer> sequenced = new ArrayList<Integer>();
+		for (Integer i : sequence) {
+			sequenced.add(i);
+		}
+
+		assertEquals(Arrays.asList(10), sequenced);
+	}
+
+	@Test
+	public void testOverflow()
+	{
+		Range<Integer> range;
+		range = from(Bound.closed(Integer.MAX_VALUE - 3))
+			.to(Bound.closed(Integer.MAX_VALUE));
+		IntSequence sequence;
+		sequence = Ranges.sequence(range, new IntegerSequencer(2));
+		IntIterator i = sequence.iterator();
+
+		assertEquals(Integer.MAX_VALUE - 3, i.nextInt());
+		assertEquals(Integer.MAX_VALUE - 1, i.nextInt());
+		assertFalse(i.hasNext());
+	}
+
+	@Test(expected=NoSuchElementException.class)
+	public void testEmptyRange()
+	{
+		Range<Integer> range = Ranges.emptyRange();
+		IntIterator i;
+		i = Ranges.sequence(range, new IntegerSequencer(1)).iterator();
+
+		assertFalse(i.hasNext());
+		i.nextInt();
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testSequenceByNull()
+	{
+		Range<Integer> range;
+		range = from(Bound.closed(0)).to(Bound.closed(5));
+		Ranges.sequence(range, (IntegerSequencer) null);
+	}
+
+	private static List<Integer> toList(Sequence<Integer> sequence)
+	{
+		List<Integer> list = new ArrayList<Integer>();
+		for (Integer i : sequence) {
+			list.add(i);
+		}
+		return list;
+	}
+
+	@Test
+	public void testSplit()
+	{
+		Range<Integer> range;
+		range = from(Bound.closed(0)).to(Bound.opened(10))
+			.union(from(Bound.closed(20)).to(Bound.opened(1000)));
+		IntSequence sequence;
+		sequence = Ranges.sequence(range, new IntegerSequencer(1));
+		List<IntSequence> parts = sequence.split();
+
+		assertEquals(2, parts.size());
+		assertEquals(495, parts.get(0).size());
+		assertEquals(495, parts.get(1).size());
+		assertEquals(505, parts.get(1).getInt(0));
+
+		range = from(Bound.closed(0)).to(Bound.opened(400))
+			.union(from(Bound.closed(500)).to(Bound.opened(1000)));
+		sequence = Ranges.sequence(range, new IntegerSequencer(1));
+		parts = sequence.split();
+
+		assertEquals(400, parts.get(0).size());
+		assertEquals(500, parts.get(1).getInt(0));
+
+		sequence = parts.get(0).limit(1);
+		assertEquals(Arrays.asList(sequence), sequence.split());
+	}
+
+	private static List<Integer> splitAll(IntSequence sequence)
+	{
+		List<IntSequence> parts = sequence.split();
+		if (parts.size() == 1) {
+			return toList(sequence);
+		}
+		assertEquals(sequence.size(), parts.get(0).size()
+			+ parts.get(1).size());
+		assertTrue(parts.get(0).size() <= 3 * sequence.size() / 4 + 1);
+		assertTrue(parts.get(1).size() <= 3 * sequence.size() / 4 + 1);
+		List<Integer> list = splitAll(parts.get(0));
+		list.addAll(splitAll(parts.get(1)));
+		return list;
+	}
+
+	@Test
+	public void testFill()
+	{
+		Range<Integer> range;
+		range = from(Bound.closed(0)).to(Bound.opened(10))
+			.union(from(Bound.closed(20)).to(Bound.opened(25)));
+		IntIterator i;
+		i = Ranges.sequence(range, new IntegerSequencer(2)).iterator();
+		int[] array = new int[6];
+
+		assertEquals(0, i.fill(array, 0, 0));
+		assertEquals(4, i.fill(array, 2, 4));
+		assertEquals(Arrays.asList(0, 0, 0, 2, 4, 6), toList(array));
+		assertEquals(8, i.nextInt());
+		assertEquals(3, i.fill(array, 0, 6));
+		assertEquals(Arrays.asList(20, 22, 24, 2, 4, 6), toList(array));
+		assertEquals(0, i.fill(array, 0, 6));
+		assertFalse(i.hasNext());
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testFillOutOfBounds()
+	{
+		Range<Integer> range;
+		range = from(Bound.closed(0)).to(Bound.opened(10));
+		IntIterator i;
+		i = Ranges.sequence(range, new IntegerSequencer(2)).iterator();
+		i.fill(new int[6], 3, 4);
+	}
+
+	private static int[] fill(IntSequence sequence, int chunk)
+	{
+		IntBuffer buffer = IntBuffer.allocate((int) sequence.size());
+		IntIterator i = sequence.iterator();
+		int[] array = new int[chunk];
+		int n;
+		while ((n = i.fill(array, 0, chunk)) > 0) {
+			buffer.put(array, 0, n);
+		}
+		assertEquals(0, i.fill(IntBuffer.allocate(1)));
+		return buffer.array();
+	}
+
+	private static List<Integer> toList(int[] array)
+	{
+		List<Integer> list = new ArrayList<Integer>();
+		for (int i : array) {
+			list.add(i);
+		}
+		return list;
+	}
+
+	private static IntSequence randomSequence(Random random)
+	{
+		Range<Integer> range = Ranges.emptyRange();
+		for (int k = random.nextInt(3); k >= 0; k--) {
+			int lower = random.nextInt(12);
+			int upper = lower + random.nextInt(6);
+			range = range.union(from(bound(lower, random))
+				.to(bound(upper, random)));
+		}
+		int step = random.nextInt(3) + 1;
+		return Ranges.sequence(range, new IntegerSequencer(step));
+	}
+
+	private static Bound<Integer> bound(int value, Random random)
+	{
+		return random.nextBoolean()
+			? Bound.closed(value) : Bound.opened(value);
+	}
+}
@@ -47,6 +47,32 @@ public final class IntegerSequencerTest
 		assertEquals(next, sequencer.next(value).intValue());
 	}
 
+	@Test
+	public void testAdvanceAndDistance()
+	{
+		int step = Utils.randomInt();
+		IntegerSequencer sequencer = new IntegerSequencer(step);
+		int value = Utils.randomInt();
+		Integer next = value;
+		for (int n = 0; n < 100; n++) {
+			assertEquals(next, sequencer.advance(value, n));
+			assertEquals(n, sequencer.distance(value, next));
+			assertEquals(n,
+				sequencer.distance(value, next + step - 1));
+			next = sequencer.next(next);
+		}
+		assertEquals(0, sequencer.distance(Integer.MAX_VALUE,
+			Integer.MAX_VALUE));
+		assertEquals((1L << 32) - 1, new IntegerSequencer(1)
+			.distance(Integer.MIN_VALUE, Integer.MAX_VALUE));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testDistanceBackwards()
+	{
+		new IntegerSequencer(1).distance(2, 1);
+	}
+
 	@Test(expected=NullPointerException.class)
 	public void testNextWithNull()
 	{
@@ -0,0 +1,184 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+
+package org.jrange;
+
+import static org.jrange.Utils.interval;
+import static junit.framework.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@code IntervalIndex} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class IntervalIndexTest
+{
+	@Test
+	public void testContaining()
+	{
+		IntervalIndex<Integer, String> index;
+		index = IntervalIndex.<Integer, String>builder()
+			.put(interval(0, true, 10, false), "a")
+			.put(interval(5, false, 15, true), "b")
+			.put(interval(10, true, 10, true), "c")
+			.put(interval(0, true, 10, false), "d")
+			.build();
+
+		assertEquals(Arrays.asList("a", "d"),
+			values(index.containing(0)));
+		assertEquals(Arrays.asList("a", "d"),
+			values(index.containing(5)));
+		assertEquals(Arrays.asList("a", "b", "d"),
+			values(index.containing(7)));
+		assertEquals(Arrays.asList("b", "c"),
+			values(index.containing(10)));
+		assertEquals(Arrays.asList("b"), values(index.containing(15)));
+		assertTrue(index.containing(16).isEmpty());
+		assertTrue(index.containing(-1).isEmpty());
+	}
+
+	@Test
+	public void testOverlapping()
+	{
+		IntervalIndex<Integer, String> index;
+		index = IntervalIndex.<Integer, String>builder()
+			.put(interval(0, true, 10, false), "a")
+			.put(interval(5, false, 15, true), "b")
+			.put(interval(20, true, 30, true), "c")
+			.build();
+
+		assertEquals(Arrays.asList("a"), values(
+			index.overlapping(interval(-5, true, 5, true))));
+		assertEquals(Arrays.asList("a", "b"), values(
+			index.overlapping(interval(3, true, 6, true))));
+		assertEquals(Arrays.asList("b"), values(
+			index.overlapping(interval(10, true, 20, false))));
+		assertEquals(Arrays.asList("b", "c"), values(
+			index.overlapping(interval(10, true, 20, true))));
+		assertTrue(index.overlapping(
+			interval(15, false, 20, false)).isEmpty());
+		assertTrue(index.overlapping(
+			interval(7, true, 7, false)).isEmpty());
+	}
+
+	@Test
+	public void testRandom()
+	{
+		Random random = new Random(42);
+		for (int n = 0; n < 50; n++) {
+			List<Interval<Integer>> intervals;
+			intervals = new ArrayList<Interval<Integer>>();
+			IntervalIndex.Builder<Integer, Integer> builder;
+			builder = IntervalIndex.builder();
+			int size = random.nextInt(200);
+			for (int i = 0; i < size; i++) {
+				Interval<Integer> interval = random(random);
+				intervals.add(interval);
+				builder.put(interval, i);
+			}
+			IntervalIndex<Integer, Integer> index = builder.build();
+
+			assertEquals(size, index.size());
+			for (int x = -5; x < 105; x++) {
+				List<Integer> expected;
+				expected = new ArrayList<Integer>();
+				for (int i = 0; i < size; i++) {
+					if (intervals.get(i).contains(x)) {
+						expected.add(i);
+					}
+				}
+				assertEquals(expected,
+					values(index.containing(x)));
+			}
+			for (int k = 0; k < 100; k++) {
+				Interval<Integer> window = random(random);
+				List<Integer> expected;
+				expected = new ArrayList<Integer>();
+				for (int i = 0; i < size; i++) {
+					Interval<Integer> interval;
+					interval = intervals.get(i);
+					if (interval.intersects(window)) {
+						expected.add(i);
+					}
+				}
+				assertEquals(expected,
+					values(index.overlapping(window)));
+			}
+		}
+	}
+
+	@Test
+	public void testEntries()
+	{
+		Interval<Integer> empty = interval(5, false, 5, true);
+		IntervalIndex.Builder<Integer, String> builder;
+		builder = IntervalIndex.builder();
+		builder.put(interval(3, true, 4, true), "a").put(empty, null);
+		IntervalIndex<Integer, String> index = builder.build();
+		builder.put(interval(0, true, 10, true), "b");
+
+		assertEquals(2, index.size());
+		assertEquals(3, builder.build().size());
+		assertEquals(empty, index.entries().get(1).interval());
+		assertNull(index.entries().get(1).value());
+		assertTrue(index.containing(5).isEmpty());
+		assertEquals(Arrays.asList("a"), values(index.overlapping(
+			interval(0, true, 10, true))));
+		assertTrue(IntervalIndex.builder().build().isEmpty());
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testPutNull()
+	{
+		IntervalIndex.<Integer, String>builder().put(null, "a");
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testContainingNull()
+	{
+		IntervalIndex<Integer, String> index;
+		index = IntervalIndex.<Integer, String>builder().build();
+		index.containing(null);
+	}
+
+	private static <V extends Comparable<? super V>> List<V> values(
+		List<IntervalIndex.Entry<Integer, V>> entries)
+	{
+		List<V> values = new ArrayList<V>();
+		for (IntervalIndex.Entry<Integer, V> entry : entries) {
+			values.add(entry.value());
+		}
+		Collections.sort(values);
+		return values;
+	}
+
+	private static Interval<Integer> random(Random random)
+	{
+		int lower = random.nextInt(100);
+		int upper = lower + random.nextInt(20) - 2;
+		return interval(lower, random.nextBoolean(),
+			upper, random.nextBoolean());
+	}
+}
@@ -0,0 +1,159 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import static org.jrange.SimpleInterval.from;
+import static junit.framework.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@code LongRange} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class LongRangeTest
+{
+	private static final long T = 1350000000000L;
+
+	@Test
+	public void testIsEmpty()
+	{
+		assertTrue(LongRange.empty().isEmpty());
+		assertTrue(LongRange.closed(T + 1, T).isEmpty());
+		assertTrue(LongRange.opened(T, T).isEmpty());
+		assertFalse(LongRange.closed(T, T).isEmpty());
+	}
+
+	@Test
+	public void testContains()
+	{
+		LongRange range = LongRange.interval(T, true, T + 10, false)
+			.union(LongRange.closed(Long.MAX_VALUE - 1,
+			Long.MAX_VALUE));
+
+		assertFalse(range.contains(T - 1));
+		assertTrue(range.contains(T));
+		assertTrue(range.contains(T + 9));
+		assertFalse(range.contains(T + 10));
+		assertFalse(range.contains(Long.MIN_VALUE));
+		assertTrue(range.contains(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testOperations()
+	{
+		LongRange range1 = LongRange.closed(T, T + 100);
+		LongRange range2 = LongRange.opened(T + 10, T + 20)
+			.union(LongRange.closed(T + 90, T + 200));
+
+		assertEquals(LongRange.closed(T, T + 200),
+			range1.union(range2));
+		assertEquals(LongRange.opened(T + 10, T + 20)
+			.union(LongRange.closed(T + 90, T + 100)),
+			range1.intersection(range2));
+		assertEquals(LongRange.interval(T, true, T + 10, true)
+			.union(LongRange.interval(T + 20, true, T + 90, false)),
+			range1.subtraction(range2));
+		assertTrue(range1.intersects(range2));
+		assertFalse(range2.includes(range1));
+		assertTrue(range1.union(range2).includes(range2));
+		assertEquals(Arrays.asList(LongRange.opened(T + 10, T + 20),
+			LongRange.closed(T + 90, T + 200)), range2.split());
+	}
+
+	@Test
+	public void testConversions()
+	{
+		Range<Long> range;
+		range = from(Bound.opened(T)).to(Bound.closed(T + 15))
+			.union(from(Bound.closed(T + 20))
+			.to(Bound.opened(T + 25)));
+		LongRange converted = LongRange.valueOf(range);
+
+		assertEquals(range.toString(), converted.toString());
+		assertEquals(range, converted.toRange());
+		assertEquals(LongRange.empty(),
+			LongRange.valueOf(Ranges.<Long>emptyRange()));
+	}
+
+	@Test
+	public void testSequence()
+	{
+		LongRange range = LongRange.closed(-10L, 7L)
+			.union(LongRange.opened(10L, 30L));
+		LongSequencer sequencer = new LongSequencer(3L);
+
+		assertEquals(Ranges.sequence(range.toRange(), sequencer),
+			range.sequence(sequencer));
+		assertEquals(0L, LongRange.empty().sequence(sequencer).size());
+	}
+
+	@Test
+	public void testAgainstRange()
+	{
+		Random random = new Random(42);
+		for (int n = 0; n < 200; n++) {
+			LongRange r1 = randomRange(random);
+			LongRange r2 = randomRange(random);
+			Range<Long> s1 = r1.toRange();
+			Range<Long> s2 = r2.toRange();
+
+			assertEquals(s1.union(s2), r1.union(r2).toRange());
+			assertEquals(s1.intersection(s2),
+				r1.intersection(r2).toRange());
+			assertEquals(s1.subtraction(s2),
+				r1.subtraction(r2).toRange());
+			assertEquals(s1.intersects(s2), r1.intersects(r2));
+			assertEquals(s1.includes(s2), r1.includes(r2));
+			for (long i = T - 1; i < T + 42; i++) {
+				assertEquals(s1.contains(i), r1.contains(i));
+			}
+		}
+	}
+
+	@Test
+	public void testEquals()
+	{
+		LongRange range1 = LongRange.closed(T, T + 5)
+			.union(LongRange.opened(T + 7, T + 9));
+		LongRange range2 = LongRange.opened(T + 7, T + 9)
+			.union(LongRange.closed(T, T + 5));
+
+		assertEquals(range1, range2);
+		assertEquals(range1.hashCode(), range2.hashCode());
+		assertFalse(range1.equals(LongRange.closed(T, T + 5)));
+	}
+
+	private static LongRange randomRange(Random random)
+	{
+		LongRange range = LongRange.empty();
+		int n = random.nextInt(6);
+		for (int i = 0; i < n; i++) {
+			long lower = T + random.nextInt(40);
+			long upper = lower + random.nextInt(8);
+			boolean lowerClosed = random.nextBoolean();
+			boolean upperClosed = random.nextBoolean();
+			range = range.union(LongRange.interval(lower,
+				lowerClosed, upper, upperClosed));
+		}
+		return range;
+	}
+}
@@ -0,0 +1,263 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import static org.jrange.SimpleInterval.from;
+import static junit.framework.Assert.*;
+
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+/**
+ * {@code LongSequence} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class LongSequenceTest
+{
+	@Test
+	public void testIterator()
+	{
+		Range<Long> range;
+		range = from(Bound.opened(-2L)).to(Bound.closed(3L))
+			.union(from(Bound.closed(5L)).to(Bound.opened(9L)))
+			.union(from(Bound.closed(11L)).to(Bound.closed(14L)));
+		LongSequencer sequencer = new LongSequencer(2);
+		LongSequence sequence = Ranges.sequence(range, sequencer);
+		List<Long> sequenced = new ArrayList<Long>();
+		for (LongIterator i = sequence.iterator(); i.hasNext();) {
+			sequenced.add(i.nextLong());
+		}
+		List<Long> expected = Arrays.asList(0L, 2L, 5L, 7L, 11L, 13L);
+
+		assertEquals(expected, sequenced);
+		assertEquals(range.sequence(sequencer), sequence);
+		assertEquals(sequence, range.sequence(sequencer));
+		assertEquals(range.sequence(sequencer).hashCode(),
+			sequence.hashCode());
+	}
+
+	@Test
+	public void testEquals()
+	{
+		Range<Long> r1;
+		r1 = from(Bound.closed(0L)).to(Bound.closed(6L));
+		Range<Long> r2;
+		r2 = from(Bound.closed(0L)).to(Bound.closed(0L))
+			.union(from(Bound.closed(6L)).to(Bound.closed(6L)));
+		LongSequence s1 = Ranges.sequence(r1, new LongSequencer(6));
+		LongSequence s2 = Ranges.sequence(r2, new LongSequencer(1));
+
+		assertEquals(s1, s2);
+		assertEquals(s1.hashCode(), s2.hashCode());
+		assertFalse(s1.equals(s2.limit(1)));
+		LongSequence s3 = Ranges.sequence(r1, new LongSequencer(3));
+		assertFalse(s2.equals(s3));
+
+		r1 = from(Bound.closed(Long.MIN_VALUE))
+			.to(Bound.closed(Long.MAX_VALUE));
+		r2 = from(Bound.closed(Long.MIN_VALUE)).to(Bound.closed(-1L))
+			.union(from(Bound.closed(0L))
+			.to(Bound.closed(Long.MAX_VALUE)));
+		s1 = Ranges.sequence(r1, new LongSequencer(1));
+		s2 = Ranges.sequence(r2, new LongSequencer(1));
+
+		assertEquals(s1, s2);
+		assertFalse(s1.equals(s2.skip(1)));
+	}
+
+	@Test
+	public void testHashCode()
+	{
+		long m = 1L << 32;
+		Range<Long> range;
+		range = from(Bound.closed(-m - 7)).to(Bound.closed(-m + 7))
+			.union(from(Bound.closed(-7L)).to(Bound.closed(7L)))
+			.union(from(Bound.closed(m - 7))
+			.to(Bound.closed(m + 7)))
+			.union(from(Bound.closed(Long.MAX_VALUE - 7))
+			.to(Bound.closed(Long.MAX_VALUE)));
+		for (long step = 1; step < 5; step++) {
+			LongSequencer sequencer = new LongSequencer(step);
+
+			assertEquals(range.sequence(sequencer).hashCode(),
+				Ranges.sequence(range, sequencer).hashCode());
+		}
+		range = from(Bound.closed(-m)).to(Bound.closed(m));
+		LongSequencer sequencer = new LongSequencer(1 << 20);
+
+		assertEquals(range.sequence(sequencer).hashCode(),
+			Ranges.sequence(range, sequencer).hashCode());
+	}
+
+	@Test
+	public void testEmptySegments()
+	{
+		Range<Long> range;
+		range = from(Bound.opened(0L)).to(Bound.opened(3L))
+			.union(from(Bound.closed(10L)).to(Bound.opened(11L)))
+			.union(from(Bound.opened(20L)).to(Bound.closed(22L)));
+		LongSequence sequence;
+		sequence = Ranges.sequence(range, new LongSequencer(3));
+		List<Long> sequenced = new ArrayList<Long>();
+		for (Long i : sequence) {
+			sequenced.add(i);
+		}
+
+		assertEquals(Arrays.asList(10L), sequenced);
+	}
+
+	@Test
+	public void testOverflow()
+	{
+		Range<Long> range;
+		range = from(Bound.closed(Long.MAX_VALUE - 3))
+			.to(Bound.closed(Long.MAX_VALUE));
+		LongSequence sequence;
+		sequence = Ranges.sequence(range, new LongSequencer(2));
+		LongIterator i = sequence.iterator();
+
+		assertEquals(Long.MAX_VALUE - 3, i.nextLong());
+		assertEquals(Long.MAX_VALUE - 1, i.nextLong());
+		assertFalse(i.hasNext());
+
+		range = from(Bound.opened(Long.MAX_VALUE - 1))
+			.to(Bound.closed(Long.MAX_VALUE));
+		sequence = Ranges.sequence(range, new LongSequencer(2));
+
+		assertFalse(sequence.iterator().hasNext());
+	}
+
+	@Test
+	public void testRandomAccess()
+	{
+		Range<Long> range;
+		range = from(Bound.opened(-2L)).to(Bound.closed(3L))
+			.union(from(Bound.closed(5L)).to(Bound.opened(9L)));
+		LongSequence sequence;
+		sequence = Ranges.sequence(range, new LongSequencer(2));
+
+		assertEquals(4, sequence.size());
+		assertEquals(0L, sequence.getLong(0));
+		assertEquals(5L, sequence.getLong(2));
+		assertEquals(Long.valueOf(7L), sequence.get(3));
+		assertEquals(Arrays.asList(2L, 5L, 7L),
+			toList(sequence.skip(1)));
+		assertEquals(Arrays.asList(7L), toList(sequence.skip(3)));
+		assertEquals(0, sequence.skip(4).size());
+	}
+
+	@Test
+	public void testFill()
+	{
+		Range<Long> range;
+		range = from(Bound.closed(0L)).to(Bound.opened(10L))
+			.union(from(Bound.closed(20L)).to(Bound.opened(25L)));
+		LongSequence sequence;
+		sequence = Ranges.sequence(range, new LongSequencer(2));
+		LongIterator i = sequence.iterator();
+		LongBuffer buffer = LongBuffer.allocate(3);
+		List<Long> filled = new ArrayList<Long>();
+		while (i.fill(buffer) > 0) {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				filled.add(buffer.get());
+			}
+			buffer.clear();
+		}
+		List<Long> expected = Arrays.asList(0L, 2L, 4L, 6L, 8L, 20L,
+			22L, 24L);
+
+		assertEquals(expected, filled);
+		long[] array = sequence.toArray();
+		assertEquals(8, array.length);
+		assertEquals(24L, array[7]);
+	}
+
+	@Test
+	public void testFillNearOverflow()
+	{
+		Range<Long> range;
+		range = from(Bound.closed(Long.MAX_VALUE - 5))
+			.to(Bound.closed(Long.MAX_VALUE));
+		long[] array;
+		array = Ranges.sequence(range, new LongSequencer(2)).toArray();
+
+		assertEquals(3, array.length);
+		assertEquals(Long.MAX_VALUE - 1, array[2]);
+	}
+
+	@Test
+	public void testHugeSize()
+	{
+		Range<Long> range;
+		range = from(Bound.closed(Long.MIN_VALUE))
+			.to(Bound.closed(Long.MAX_VALUE));
+		LongSequence sequence;
+
+		sequence = Ranges.sequence(range, new LongSequencer(1));
+		assertEquals(Long.MAX_VALUE, sequence.size());
+		sequence = Ranges.sequence(range, new LongSequencer(2));
+		assertEquals(Long.MAX_VALUE, sequence.size());
+		sequence = Ranges.sequence(range, new LongSequencer(4));
+		assertEquals(1L << 62, sequence.size());
+		long last = sequence.getLong(sequence.size() - 1);
+		assertEquals(Long.MAX_VALUE - 3, last);
+		assertEquals(Long.MIN_VALUE + 4, sequence.skip(1).getLong(0));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds()
+	{
+		Range<Long> range;
+		range = from(Bound.closed(0L)).to(Bound.opened(10L));
+		Ranges.sequence(range, new LongSequencer(2)).getLong(-1);
+	}
+
+	@Test(expected=NoSuchElementException.class)
+	public void testEmptyRange()
+	{
+		Range<Long> range = Ranges.emptyRange();
+		LongIterator i;
+		i = Ranges.sequence(range, new LongSequencer(1)).iterator();
+
+		assertFalse(i.hasNext());
+		i.nextLong();
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testSequenceByNull()
+	{
+		Range<Long> range;
+		range = from(Bound.closed(0L)).to(Bound.closed(5L));
+		Ranges.sequence(range, (LongSequencer) null);
+	}
+
+	private static List<Long> toList(Sequence<Long> sequence)
+	{
+		List<Long> list = new ArrayList<Long>();
+		for (Long i : sequence) {
+			list.add(i);
+		}
+		return list;
+	}
+}
@@ -47,6 +47,28 @@ public final class LongSequencerTest
 		assertEquals(next, sequencer.next(value).longValue());
 	}
 
+	@Test
+	public void testAdvanceAndDistance()
+	{
+		long step = Utils.randomLong();
+		LongSequencer sequencer = new LongSequencer(step);
+		long value = Utils.randomLong();
+		Long next = value;
+		for (int n = 0; n < 100; n++) {
+			assertEquals(next, sequencer.advance(value, n));
+			assertEquals(n, sequencer.distance(value, next));
+			assertEquals(n,
+				sequencer.distance(value, next + step - 1));
+			next = sequencer.next(next);
+		}
+		sequencer = new LongSequencer(4);
+		assertEquals((1L << 62) - 1, sequencer.distance(Long.MIN_VALUE,
+			Long.MAX_VALUE));
+		sequencer = new LongSequencer(1);
+		assertEquals(Long.MAX_VALUE, sequencer.distance(Long.MIN_VALUE,
+			Long.MAX_VALUE));
+	}
+
 	@Test(expected=NullPointerException.class)
 	public void testNextWithNull()
 	{
@@ -0,0 +1,147 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+
+package org.jrange;
+
+import static org.jrange.Utils.interval;
+import static junit.framework.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@code PersistentRange} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class PersistentRangeTest
+{
+	@Test
+	public void testPersistence()
+	{
+		Range<Integer> range;
+		range = interval(0, true, 10, false)
+			.union(interval(20, true, 30, true));
+		PersistentRange<Integer> base;
+		base = PersistentRange.valueOf(range);
+		PersistentRange<Integer> union;
+		union = base.union(interval(10, true, 15, true));
+		PersistentRange<Integer> subtraction;
+		subtraction = base.subtraction(interval(5, false, 25, false));
+
+		assertEquals("[0, 10[ U [20, 30]", base.toString());
+		assertEquals("[0, 15] U [20, 30]", union.toString());
+		assertEquals("[0, 5] U [25, 30]", subtraction.toString());
+		assertEquals(range, base);
+		assertEquals(base, range);
+		assertEquals(range.hashCode(), base.hashCode());
+		assertSame(base, PersistentRange.valueOf(base));
+		assertSame(base, base.union(interval(2, true, 5, true)));
+		assertSame(base, base.union(interval(0, true, 10, false)));
+		assertSame(base,
+			base.subtraction(interval(12, true, 15, true)));
+		assertTrue(base.subtraction(range).isEmpty());
+	}
+
+	@Test
+	public void testRandom()
+	{
+		Random random = new Random(42);
+		for (int n = 0; n < 100; n++) {
+			PersistentRange<Integer> range;
+			range = PersistentRange.empty();
+			Range<Integer> expected = Ranges.emptyRange();
+			List<PersistentRange<Integer>> versions;
+			versions = new ArrayList<PersistentRange<Integer>>();
+			List<Range<Integer>> snapshots;
+			snapshots = new ArrayList<Range<Integer>>();
+			for (int k = 0; k < 40; k++) {
+				Range<Integer> arg = random(random);
+				int op = random.nextInt(4);
+				if (op == 0) {
+					range = range.subtraction(arg);
+					expected = expected.subtraction(arg);
+				} else if (op == 1) {
+					arg = arg.union(random(random));
+					range = range.intersection(arg);
+					expected = expected.intersection(arg);
+				} else {
+					range = range.union(arg);
+					expected = expected.union(arg);
+				}
+				versions.add(range);
+				snapshots.add(expected);
+
+				assertEquals(expected, range);
+				assertEquals(range, expected);
+				assertEquals(expected.hashCode(),
+					range.hashCode());
+				assertEquals(Segments.split(expected),
+					new ArrayList<Segment<Integer>>(
+					range.segments()));
+				assertEquals(Segments.split(expected),
+					range.segments());
+				assertEquals(expected.split(), range.split());
+				assertEquals(expected.includes(arg),
+					range.includes(arg));
+				assertEquals(expected.intersects(arg),
+					range.intersects(arg));
+				int value = random.nextInt(120);
+				assertEquals(expected.contains(value),
+					range.contains(value));
+			}
+			assertEquals(snapshots, versions);
+		}
+	}
+
+	@Test
+	public void testSequence()
+	{
+		PersistentRange<Integer> range = PersistentRange.valueOf(
+			interval(0, true, 4, true).union(interval(10, false,
+			13, true)));
+		List<Integer> sequenced = new ArrayList<Integer>();
+		for (Integer i : range.sequence(new IntegerSequencer(2))) {
+			sequenced.add(i);
+		}
+
+		assertEquals(Arrays.asList(0, 2, 4, 12), sequenced);
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testContainsNull()
+	{
+		PersistentRange.<Integer>empty().contains(null);
+	}
+
+	private static Range<Integer> random(Random random)
+	{
+		Range<Integer> range = Ranges.emptyRange();
+		for (int k = random.nextInt(3); k >= 0; k--) {
+			int lower = random.nextInt(100);
+			int upper = lower + random.nextInt(20) - 2;
+			range = range.union(interval(lower,
+				random.nextBoolean(), upper,
+				random.nextBoolean()));
+		}
+		return range;
+	}
+}
@@ -0,0 +1,181 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+
+package org.jrange;
+
+import static org.jrange.Utils.interval;
+import static junit.framework.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@code RangeMap} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class RangeMapTest
+{
+	@Test
+	public void testPut()
+	{
+		RangeMap<Integer, String> map = new RangeMap<Integer, String>();
+		map.put(interval(0, true, 10, false), "a")
+			.put(interval(3, true, 5, true), "b")
+			.put(interval(8, false, 12, true), "c");
+
+		assertEquals("{[0, 3[=a, [3, 5]=b, ]5, 8]=a, ]8, 12]=c}",
+			map.toString());
+		assertEquals("a", map.get(0));
+		assertEquals("b", map.get(3));
+		assertEquals("a", map.get(8));
+		assertEquals("c", map.get(9));
+		assertNull(map.get(13));
+		assertNull(map.get(-1));
+
+		map.remove(interval(4, true, 9, false));
+
+		assertEquals("{[0, 3[=a, [3, 4[=b, [9, 12]=c}",
+			map.toString());
+		assertEquals(3, map.size());
+	}
+
+	@Test
+	public void testPutCoalescing()
+	{
+		RangeMap<Integer, String> map = new RangeMap<Integer, String>();
+		map.put(interval(0, true, 5, false), "a")
+			.put(interval(5, false, 10, true), "a")
+			.putCoalescing(interval(5, true, 5, true), "a");
+
+		assertEquals("{[0, 10]=a}", map.toString());
+
+		map.putCoalescing(interval(10, false, 15, true), "b")
+			.putCoalescing(interval(15, false, 20, true), "b")
+			.putCoalescing(interval(20, true, 25, true), "b");
+
+		assertEquals("{[0, 10]=a, ]10, 25]=b}", map.toString());
+
+		map.putCoalescing(interval(30, true, 35, true), "b");
+
+		assertEquals(3, map.size());
+	}
+
+	@Test
+	public void testBuilder()
+	{
+		RangeMap.Builder<Integer, String> builder = RangeMap.builder();
+		builder.put(interval(0, true, 5, false), "a")
+			.put(interval(5, true, 5, true), "b")
+			.put(interval(5, false, 7, false), "c");
+		RangeMap<Integer, String> map = builder.build();
+		builder.put(interval(8, true, 9, true), "d");
+
+		assertEquals("{[0, 5[=a, [5, 5]=b, ]5, 7[=c}", map.toString());
+		assertEquals("b", map.get(5));
+		assertEquals(4, builder.build().size());
+	}
+
+	@Test
+	public void testBuilderMatchesPut()
+	{
+		RangeMap.Builder<Integer, Integer> builder = RangeMap.builder();
+		RangeMap<Integer, Integer> expected;
+		expected = new RangeMap<Integer, Integer>();
+		for (int i = 0; i < 1000; i++) {
+			Interval<Integer> interval;
+			interval = interval(2 * i, true, 2 * i + 1, false);
+			builder.put(interval, i);
+			expected.put(interval, i);
+		}
+		RangeMap<Integer, Integer> map = builder.build();
+
+		assertEquals(expected.asMap(), map.asMap());
+		for (int i = 0; i < 2000; i++) {
+			assertEquals(expected.get(i), map.get(i));
+		}
+		map.put(interval(10, true, 1990, true), -1);
+		expected.put(interval(10, true, 1990, true), -1);
+		assertEquals(expected.asMap(), map.asMap());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testBuilderUnsorted()
+	{
+		RangeMap.Builder<Integer, String> builder = RangeMap.builder();
+		builder.put(interval(0, true, 5, true), "a")
+			.put(interval(5, true, 6, true), "b");
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testPutNull()
+	{
+		new RangeMap<Integer, String>()
+			.put(interval(0, true, 5, true), null);
+	}
+
+	@Test
+	public void testRandom()
+	{
+		Random random = new Random(42);
+		for (int n = 0; n < 100; n++) {
+			RangeMap<Integer, Integer> map;
+			map = new RangeMap<Integer, Integer>();
+			List<Interval<Integer>> intervals;
+			intervals = new ArrayList<Interval<Integer>>();
+			List<Integer> values = new ArrayList<Integer>();
+			for (int k = 0; k < 30; k++) {
+				int lower = 2 * random.nextInt(50);
+				int upper = lower + 2 * random.nextInt(10) - 2;
+				Interval<Integer> interval;
+				interval = interval(lower, random.nextBoolean(),
+					upper, random.nextBoolean());
+				Integer value = random.nextInt(4);
+				int op = random.nextInt(4);
+				if (op == 0) {
+					map.remove(interval);
+					value = null;
+				} else if (op == 1) {
+					map.putCoalescing(interval, value);
+				} else {
+					map.put(interval, value);
+				}
+				intervals.add(interval);
+				values.add(value);
+
+				for (int x = -1; x < 120; x++) {
+					assertEquals(get(intervals, values, x),
+						map.get(x));
+				}
+			}
+		}
+	}
+
+	private static Integer get(List<Interval<Integer>> intervals,
+		List<Integer> values, int x)
+	{
+		for (int i = intervals.size() - 1; i >= 0; i--) {
+			if (intervals.get(i).contains(x)) {
+				return values.get(i);
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,135 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+
+package org.jrange;
+
+import static org.jrange.Utils.interval;
+import static junit.framework.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@code RangeSet} tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class RangeSetTest
+{
+	@Test
+	public void testAdd()
+	{
+		RangeSet<Integer> set = new RangeSet<Integer>();
+		set.add(interval(0, true, 5, false))
+			.add(interval(10, true, 15, true))
+			.add(interval(5, true, 7, true));
+
+		assertEquals("[0, 7] U [10, 15]", set.toString());
+		assertEquals(2, set.intervalCount());
+
+		set.add(interval(7, false, 10, false));
+
+		assertEquals("[0, 15]", set.toString());
+		assertEquals(1, set.intervalCount());
+		assertTrue(set.contains(12));
+		assertFalse(set.contains(16));
+	}
+
+	@Test
+	public void testRemove()
+	{
+		RangeSet<Integer> set;
+		set = new RangeSet<Integer>(interval(0, true, 20, true));
+		set.remove(interval(5, true, 10, false))
+			.remove(interval(15, false, 25, true));
+
+		assertEquals("[0, 5[ U [10, 15]", set.toString());
+		assertFalse(set.contains(5));
+		assertTrue(set.contains(10));
+
+		set.remove(interval(-5, true, 30, true));
+
+		assertTrue(set.isEmpty());
+		assertEquals(Ranges.<Integer>emptyRange(), set.toRange());
+	}
+
+	@Test
+	public void testSnapshot()
+	{
+		RangeSet<Integer> set = new RangeSet<Integer>();
+		set.add(interval(0, true, 5, true));
+		Range<Integer> snapshot = set.toRange();
+
+		assertSame(snapshot, set.toRange());
+
+		set.add(interval(1, false, 5, true));
+		set.remove(interval(7, true, 9, true));
+
+		assertSame(snapshot, set.toRange());
+
+		set.add(interval(10, true, 15, true));
+
+		assertEquals(interval(0, true, 5, true), snapshot);
+		assertNotSame(snapshot, set.toRange());
+		assertTrue(set.toRange().contains(12));
+
+		set.clear();
+
+		assertTrue(set.toRange().isEmpty());
+		assertFalse(snapshot.isEmpty());
+	}
+
+	@Test
+	public void testRandom()
+	{
+		Random random = new Random(42);
+		for (int n = 0; n < 100; n++) {
+			RangeSet<Integer> set = new RangeSet<Integer>();
+			Range<Integer> expected = Ranges.emptyRange();
+			for (int k = 0; k < 50; k++) {
+				int lower = random.nextInt(100);
+				int upper = lower + random.nextInt(20) - 2;
+				Interval<Integer> interval;
+				interval = interval(lower, random.nextBoolean(),
+					upper, random.nextBoolean());
+				if (random.nextInt(3) == 0) {
+					set.remove(interval);
+					expected = expected
+						.subtraction(interval);
+				} else {
+					set.add(interval);
+					expected = expected.union(interval);
+				}
+
+				assertEquals(expected, set.toRange());
+				int count = expected.isEmpty()
+					? 0 : expected.split().size();
+				assertEquals(count, set.intervalCount());
+				int value = random.nextInt(120);
+				assertEquals(expected.contains(value),
+					set.contains(value));
+			}
+		}
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testAddNull()
+	{
+		new RangeSet<Integer>().add(null);
+	}
+}
@@ -21,7 +21,10 @@ import static junit.framework.Assert.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.junit.Test;
 
@@ -65,6 +68,28 @@ public final class RangeTest
 		assertFalse(range.contains(20));
 	}
 
+	@Test
+	public void testContainsWithManySegments()
+	{
+		List<Segment<Integer>> segments;
+		segments = new ArrayList<Segment<Integer>>();
+		for (int i = 0; i < 10000; i++) {
+			segments.add(new Segment<Integer>(Bound.closed(3 * i),
+				Bound.opened(3 * i + 2)));
+		}
+		Range<Integer> range = new SimpleRange<Integer>(segments);
+
+		assertFalse(range.contains(-1));
+		assertTrue(range.contains(0));
+		assertTrue(range.contains(1));
+		assertFalse(range.contains(2));
+		assertTrue(range.contains(15000));
+		assertFalse(range.contains(15002));
+		assertTrue(range.contains(29998));
+		assertFalse(range.contains(29999));
+		assertFalse(range.contains(30000));
+	}
+
 	@Test
 	public void testIncludes1()
 	{
@@ -199,6 +224,29 @@ public final class RangeTest
 		assertEquals(range, range.intersection(range));
 	}
 
+	@Test
+	public void testIntersection4()
+	{
+		Range<Integer> range1, range2, intersection;
+		range1 = from(Bound.closed(0)).to(Bound.closed(10))
+			.union(from(Bound.opened(12)).to(Bound.closed(20)))
+			.union(from(Bound.closed(30)).to(Bound.closed(40)));
+		range2 = from(Bound.closed(-5)).to(Bound.closed(2))
+			.union(from(Bound.closed(4)).to(Bound.closed(5)))
+			.union(from(Bound.opened(8)).to(Bound.closed(12)))
+			.union(from(Bound.closed(18)).to(Bound.opened(35)))
+			.union(from(Bound.closed(40)).to(Bound.closed(45)));
+		intersection = from(Bound.closed(0)).to(Bound.closed(2))
+			.union(from(Bound.closed(4)).to(Bound.closed(5)))
+			.union(from(Bound.opened(8)).to(Bound.closed(10)))
+			.union(from(Bound.closed(18)).to(Bound.closed(20)))
+			.union(from(Bound.closed(30)).to(Bound.opened(35)))
+			.union(from(Bound.closed(40)).to(Bound.closed(40)));
+
+		assertEquals(intersection, range1.intersection(range2));
+		assertEquals(intersection, range2.intersection(range1));
+	}
+
 	@Test
 	public void testIntersectionWithEmptyRange()
 	{
@@ -313,6 +361,26 @@ public final class RangeTest
 		assertEquals(Ranges.EMPTY_RANGE, range.subtraction(range));
 	}
 
+	@Test
+	public void testSubtraction4()
+	{
+		Range<Integer> range1, range2, subtraction;
+		range1 = from(Bound.closed(0)).to(Bound.closed(10))
+			.union(from(Bound.closed(20)).to(Bound.closed(30)));
+		range2 = from(Bound.closed(2)).to(Bound.closed(3))
+			.union(from(Bound.closed(5)).to(Bound.opened(6)))
+			.union(from(Bound.opened(8)).to(Bound.closed(22)))
+			.union(from(Bound.closed(24)).to(Bound.closed(24)))
+			.union(from(Bound.opened(30)).to(Bound.closed(40)));
+		subtraction = from(Bound.closed(0)).to(Bound.opened(2))
+			.union(from(Bound.opened(3)).to(Bound.opened(5)))
+			.union(from(Bound.closed(6)).to(Bound.closed(8)))
+			.union(from(Bound.opened(22)).to(Bound.opened(24)))
+			.union(from(Bound.opened(24)).to(Bound.closed(30)));
+
+		assertEquals(subtraction, range1.subtraction(range2));
+	}
+
 	@Test
 	public void testSubtractionByEmptyInterval()
 	{
@@ -369,6 +437,167 @@ public final class RangeTest
 		assertEquals(Arrays.asList(0, 2, 5, 7, 11, 13), sequenced);
 	}
 
+	@Test
+	public void testSequenceRandomAccess()
+	{
+		Range<Integer> range;
+		range = from(Bound.opened(-2)).to(Bound.closed(3))
+			.union(from(Bound.closed(5)).to(Bound.opened(9)))
+			.union(from(Bound.opened(9)).to(Bound.opened(10)))
+			.union(from(Bound.closed(11)).to(Bound.closed(14)));
+		Sequencer<Integer> sequencer = new Sequencer<Integer>()
+		{
+			@Override
+			public Integer next(Integer current)
+			{
+				return current + 2;
+			}
+		};
+		List<Integer> expected = Arrays.asList(0, 2, 5, 7, 11, 13);
+		List<Sequencer<Integer>> sequencers;
+		sequencers = Arrays.asList(sequencer, new IntegerSequencer(2));
+		for (Sequencer<Integer> s : sequencers) {
+			IndexedSequence<Integer> sequence;
+			sequence = (IndexedSequence<Integer>) range.sequence(s);
+
+			assertEquals(expected.size(), sequence.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i), sequence.get(i));
+				IndexedSequence<Integer> tail;
+				tail = sequence.skip(i);
+				assertEquals(expected.size() - i, tail.size());
+				assertEquals(expected.get(i), tail.get(0));
+				IndexedSequence<Integer> head;
+				head = sequence.limit(i + 1);
+				assertEquals(i + 1, head.size());
+				assertEquals(expected.get(i), head.get(i));
+			}
+			assertEquals(0, sequence.skip(expected.size()).size());
+			List<? extends IndexedSequence<Integer>> parts;
+			parts = sequence.split();
+			assertEquals(2, parts.size());
+			assertEquals(2, parts.get(0).size());
+			assertEquals(Integer.valueOf(5), parts.get(1).get(0));
+		}
+	}
+
+	@Test
+	public void testSequenceIterator()
+	{
+		Range<Integer> range;
+		range = from(Bound.opened(-2)).to(Bound.closed(3))
+			.union(from(Bound.closed(5)).to(Bound.opened(9)))
+			.union(from(Bound.opened(10)).to(Bound.opened(11)))
+			.union(from(Bound.closed(12)).to(Bound.closed(13)))
+			.union(from(Bound.opened(15)).to(Bound.closed(16)));
+		final int[] calls = new int[1];
+		Sequencer<Integer> sequencer = new Sequencer<Integer>()
+		{
+			@Override
+			public Integer next(Integer current)
+			{
+				calls[0]++;
+				return current + 2;
+			}
+		};
+		Iterator<Integer> i = range.sequence(sequencer).iterator();
+		List<Integer> sequenced = new ArrayList<Integer>();
+		while (i.hasNext() && i.hasNext()) {
+			sequenced.add(i.next());
+		}
+
+		assertEquals(Arrays.asList(0, 2, 5, 7, 12), sequenced);
+		assertEquals(8, calls[0]);
+		assertFalse(i.hasNext());
+		try {
+			i.next();
+			fail();
+		} catch (NoSuchElementException e) {
+			assertEquals(8, calls[0]);
+		}
+	}
+
+	@Test
+	public void testSequenceEquals()
+	{
+		Range<Integer> r1;
+		r1 = from(Bound.closed(0)).to(Bound.closed(20));
+		Range<Integer> r2;
+		r2 = from(Bound.closed(0)).to(Bound.closed(9))
+			.union(from(Bound.closed(10)).to(Bound.closed(15)))
+			.union(from(Bound.closed(16)).to(Bound.opened(21)));
+		Range<Integer> r3;
+		r3 = from(Bound.closed(0)).to(Bound.closed(4))
+			.union(from(Bound.closed(7)).to(Bound.closed(21)));
+		Sequencer<Integer> sequencer = new Sequencer<Integer>()
+		{
+			@Override
+			public Integer next(Integer current)
+			{
+				return current + 2;
+			}
+		};
+		List<Sequencer<Integer>> sequencers;
+		sequencers = Arrays.asList(sequencer, new IntegerSequencer(2));
+		for (Sequencer<Integer> s : sequencers) {
+			Sequence<Integer> s1 = r1.sequence(s);
+			Sequence<Integer> s2 = r2.sequence(s);
+			Sequence<Integer> s3 = r3.sequence(s);
+
+			assertEquals(s1, s2);
+			assertEquals(s2, s1);
+			assertEquals(s1.hashCode(), s2.hashCode());
+			assertFalse(s1.equals(s3));
+			assertFalse(s3.equals(s2));
+			assertFalse(s1.equals(
+				r1.sequence(new IntegerSequencer(1))));
+		}
+	}
+
+	@Test(timeout=1000)
+	public void testSequenceHashCode()
+	{
+		Range<Integer> huge;
+		huge = from(Bound.closed(0)).to(Bound.closed(1000000000));
+		IntegerSequencer one = new IntegerSequencer(1);
+
+		assertEquals(Ranges.sequence(huge, one).hashCode(),
+			huge.sequence(one).hashCode());
+
+		Range<Integer> ints = from(Bound.closed(Integer.MIN_VALUE))
+			.to(Bound.closed(Integer.MIN_VALUE + 10));
+		ints = ints.union(from(Bound.opened(-3)).to(Bound.closed(8)));
+		ints = ints.union(from(Bound.closed(Integer.MAX_VALUE - 10))
+			.to(Bound.closed(Integer.MAX_VALUE)));
+		for (int step = 1; step < 5; step++) {
+			Sequence<Integer> sequence;
+			sequence = ints.sequence(new IntegerSequencer(step));
+			assertEquals(hash(sequence), sequence.hashCode());
+		}
+
+		long m = 1L << 32;
+		Range<Long> longs = from(Bound.closed(Long.MIN_VALUE))
+			.to(Bound.closed(Long.MIN_VALUE + 10));
+		longs = longs.union(from(Bound.opened(-m - 10))
+			.to(Bound.opened(-m + 10)));
+		longs = longs.union(from(Bound.closed(-5L))
+			.to(Bound.closed(5L)));
+		longs = longs.union(from(Bound.closed(m - 10))
+			.to(Bound.closed(m + 10)));
+		for (long step = 1; step < 5; step++) {
+			Sequence<Long> sequence;
+			sequence = longs.sequence(new LongSequencer(step));
+			assertEquals(hash(sequence), sequence.hashCode());
+		}
+
+		Range<Date> dates = from(Bound.closed(new Date(-m - 10)))
+			.to(Bound.closed(new Date(-m + 10)));
+		dates = dates.union(from(Bound.opened(new Date(-5)))
+			.to(Bound.opened(new Date(7))));
+		Sequence<Date> sequence = dates.sequence(new DateSequencer(3));
+		assertEquals(hash(sequence), sequence.hashCode());
+	}
+
 	@Test(expected=NullPointerException.class)
 	public void testSequenceByNull()
 	{
@@ -437,4 +666,29 @@ public final class RangeTest
 		assertFalse(range1.equals(range2));
 		assertFalse(range2.equals(range1));
 	}
+
+	@Test
+	public void testEquals5()
+	{
+		Range<Integer> range, interval;
+		range = from(Bound.closed(0)).to(Bound.closed(5))
+			.union(from(Bound.opened(5)).to(Bound.opened(10)));
+		interval = from(Bound.closed(0)).to(Bound.opened(10));
+
+		assertEquals(range, interval);
+		assertEquals(interval, range);
+		assertEquals(range.hashCode(), interval.hashCode());
+		assertEquals(range.hashCode(), range.hashCode());
+		assertFalse(range.equals(interval.union(
+			from(Bound.closed(10)).to(Bound.closed(10)))));
+	}
+
+	private static int hash(Sequence<?> sequence)
+	{
+		int hash = 7;
+		for (Object e : sequence) {
+			hash = 97 * hash + e.hashCode();
+		}
+		return hash;
+	}
 }
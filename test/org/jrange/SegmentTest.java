@@ -0,0 +1,96 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import static junit.framework.Assert.*;
+
+import org.jrange.Segment.Relation;
+import org.junit.Test;
+
+/**
+ * Segment tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class SegmentTest
+{
+	@Test
+	public void testRelate()
+	{
+		Segment<Integer> segment;
+		segment = segment(Bound.closed(5), Bound.opened(10));
+
+		assertEquals(Relation.NONE, segment.relate(
+			segment(Bound.closed(3), Bound.opened(3))));
+		assertEquals(Relation.AFTER, segment.interior().relate(
+			segment(Bound.closed(0), Bound.opened(5))));
+		assertEquals(Relation.AFTER, segment.relate(
+			segment(Bound.closed(0), Bound.closed(4))));
+		assertEquals(Relation.MET, segment.relate(
+			segment(Bound.closed(0), Bound.opened(5))));
+		assertEquals(Relation.OVERLAPPED, segment.relate(
+			segment(Bound.closed(0), Bound.closed(5))));
+		assertEquals(Relation.INCLUDES, segment.relate(
+			segment(Bound.closed(5), Bound.opened(10))));
+		assertEquals(Relation.INCLUDES, segment.relate(
+			segment(Bound.opened(5), Bound.opened(8))));
+		assertEquals(Relation.INCLUDED, segment.relate(
+			segment(Bound.closed(5), Bound.closed(10))));
+		assertEquals(Relation.OVERLAPS, segment.relate(
+			segment(Bound.opened(5), Bound.closed(12))));
+		assertEquals(Relation.MEETS, segment.relate(
+			segment(Bound.closed(10), Bound.closed(12))));
+		assertEquals(Relation.BEFORE, segment.relate(
+			segment(Bound.opened(10), Bound.closed(12))));
+	}
+
+	@Test
+	public void testIsEmpty()
+	{
+		assertTrue(segment(Bound.closed(5), Bound.opened(5)).isEmpty());
+		assertTrue(segment(Bound.opened(5), Bound.closed(5)).isEmpty());
+		assertTrue(segment(Bound.closed(5), Bound.closed(4)).isEmpty());
+		assertFalse(segment(Bound.closed(5), Bound.closed(5))
+			.isEmpty());
+		assertFalse(segment(Bound.opened(5), Bound.opened(6))
+			.isEmpty());
+	}
+
+	@Test
+	public void testIncludesEmptySegment()
+	{
+		Segment<Integer> segment;
+		segment = segment(Bound.closed(0), Bound.closed(10));
+		Segment<Integer> empty;
+		empty = segment(Bound.closed(3), Bound.opened(3));
+
+		assertTrue(segment.includes(empty));
+		assertTrue(segment.includes(
+			segment(Bound.closed(20), Bound.opened(20))));
+		assertTrue(segment.includes(
+			segment(Bound.closed(10), Bound.closed(5))));
+		assertTrue(empty.includes(
+			segment(Bound.opened(7), Bound.opened(7))));
+		assertFalse(empty.includes(segment));
+	}
+
+	private static Segment<Integer> segment(Bound<Integer> lower,
+		Bound<Integer> upper)
+	{
+		return new Segment<Integer>(lower, upper);
+	}
+}
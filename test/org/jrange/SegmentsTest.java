@@ -0,0 +1,93 @@
+/*----------------------------------------------------------------------------*
+ * This file is part of JRange.                                               *
+ * Copyright (C) 2012 Osman KOCAK <kocakosm@gmail.com>                        *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify it    *
+ * under the terms of the GNU Lesser General Public License as published by   *
+ * the Free Software Foundation, either version 3 of the License, or (at your *
+ * option) any later version.                                                 *
+ * This program is distributed in the hope that it will be useful, but        *
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY *
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public     *
+ * License for more details.                                                  *
+ * You should have received a copy of the GNU Lesser General Public License   *
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.       *
+ *----------------------------------------------------------------------------*/
+
+package org.jrange;
+
+import static junit.framework.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Segments tests.
+ *
+ * @author	Osman KOCAK
+ */
+public final class SegmentsTest
+{
+	@Test
+	public void testCanonicalize()
+	{
+		List<Segment<Integer>> segments;
+		segments = new ArrayList<Segment<Integer>>();
+		segments.add(segment(Bound.closed(15), Bound.opened(20)));
+		segments.add(segment(Bound.opened(5), Bound.closed(10)));
+		segments.add(segment(Bound.closed(3), Bound.opened(3)));
+		segments.add(segment(Bound.closed(0), Bound.closed(5)));
+		segments.add(segment(Bound.closed(12), Bound.closed(17)));
+		segments.add(segment(Bound.opened(20), Bound.closed(22)));
+		List<Segment<Integer>> expected;
+		expected = new ArrayList<Segment<Integer>>();
+		expected.add(segment(Bound.closed(0), Bound.closed(10)));
+		expected.add(segment(Bound.closed(12), Bound.opened(20)));
+		expected.add(segment(Bound.opened(20), Bound.closed(22)));
+
+		assertEquals(expected, Segments.canonicalize(segments));
+	}
+
+	@Test
+	public void testCanonicalizeSameLowerValue()
+	{
+		List<Segment<Integer>> segments;
+		segments = new ArrayList<Segment<Integer>>();
+		segments.add(segment(Bound.opened(5), Bound.closed(12)));
+		segments.add(segment(Bound.closed(5), Bound.opened(10)));
+		List<Segment<Integer>> expected;
+		expected = new ArrayList<Segment<Integer>>();
+		expected.add(segment(Bound.closed(5), Bound.closed(12)));
+
+		assertEquals(expected, Segments.canonicalize(segments));
+	}
+
+	@Test
+	public void testCanonicalizeManySegments()
+	{
+		int n = 100000;
+		List<Segment<Integer>> segments;
+		segments = new ArrayList<Segment<Integer>>();
+		for (int i = 0; i < n; i++) {
+			segments.add(segment(Bound.closed(2 * i),
+				Bound.opened(2 * i + 1)));
+		}
+		Collections.shuffle(segments);
+
+		List<Segment<Integer>> canonical;
+		canonical = Segments.canonicalize(segments);
+		assertEquals(n, canonical.size());
+		assertEquals(segment(Bound.closed(0), Bound.opened(1)),
+			canonical.get(0));
+		assertEquals(Segments.canonicalize(canonical), canonical);
+	}
+
+	private static Segment<Integer> segment(Bound<Integer> lower,
+		Bound<Integer> upper)
+	{
+		return new Segment<Integer>(lower, upper);
+	}
+}
@@ -16,6 +16,8 @@
 
 package org.jrange;
 
+import static org.jrange.SimpleInterval.from;
+
 /**
  * Utility class.
  *
@@ -53,6 +55,25 @@ final class Utils
 		return Double.valueOf(Math.random() * 999).doubleValue() + 1.0;
 	}
 
+	/**
+	 * Returns the interval of {@code Integer}s having the given bounds.
+	 *
+	 * @param lower the lower value of the interval.
+	 * @param lowerClosed whether the lower bound is closed.
+	 * @param upper the upper value of the interval.
+	 * @param upperClosed whether the upper bound is closed.
+	 *
+	 * @return the interval having the given bounds.
+	 */
+	static Interval<Integer> interval(int lower, boolean lowerClosed,
+		int upper, boolean upperClosed)
+	{
+		Bound<Integer> l, u;
+		l = lowerClosed ? Bound.closed(lower) : Bound.opened(lower);
+		u = upperClosed ? Bound.closed(upper) : Bound.opened(upper);
+		return from(l).to(u);
+	}
+
 	private Utils()
 	{
 		/* ... */